@@ -0,0 +1,88 @@
+package com.example.orderservice.jmh;
+
+import com.example.orderservice.messaging.OrderEventCodec;
+import com.example.orderservice.messaging.event.OrderEvent;
+import com.example.orderservice.model.Order;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order event'lerinin encode/decode maliyeti, format başına.
+ *
+ * "legacy" eski yoldur: entity her çağrıda yeni bir ObjectMapper ile String'e çevrilir,
+ * ardından Jackson2JsonMessageConverter o String'i tekrar JSON'a çevirir (kaçışlı string).
+ * "json" ve "cbor" OrderEventCodec'in tek seferlik encode'udur. Encode edilen boyut
+ * setup'ta bir kez yazdırılır.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class EventCodecBenchmark {
+
+	@Param({"1", "10", "100"})
+	public int itemCount;
+
+	@Param({"legacy", "json", "cbor"})
+	public String format;
+
+	private final OrderEventCodec codec = new OrderEventCodec(new SimpleMeterRegistry(), OrderEventCodec.JSON);
+	private final Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter();
+
+	private Order order;
+	private OrderEvent orderEvent;
+	private String contentType;
+	private Message legacyMessage;
+	private byte[] body;
+
+	@Setup
+	public void setUp() throws Exception {
+		order = Orders.withItems(itemCount);
+		orderEvent = OrderEvent.from(order);
+		contentType = "cbor".equals(format) ? OrderEventCodec.CBOR : OrderEventCodec.JSON;
+		legacyMessage = legacyEncode();
+		body = isLegacy() ? legacyMessage.getBody() : codec.encode(orderEvent, contentType);
+		System.out.printf("%n%s, %d items: %d bytes%n", format, itemCount, body.length);
+	}
+
+	@Benchmark
+	public Object encode() throws Exception {
+		return isLegacy() ? legacyEncode() : codec.encode(orderEvent, contentType);
+	}
+
+	@Benchmark
+	public OrderEvent decode() throws Exception {
+		if (isLegacy()) {
+			String json = (String) converter.fromMessage(legacyMessage);
+			return new ObjectMapper().readValue(json, OrderEvent.class);
+		}
+		return codec.decode(body, contentType, OrderEvent.class);
+	}
+
+	private boolean isLegacy() {
+		return "legacy".equals(format);
+	}
+
+	private Message legacyEncode() throws Exception {
+		String json = new ObjectMapper().writeValueAsString(order);
+		return converter.toMessage(json, new MessageProperties());
+	}
+}
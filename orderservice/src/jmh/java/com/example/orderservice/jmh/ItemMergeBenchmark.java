@@ -0,0 +1,65 @@
+package com.example.orderservice.jmh;
+
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.service.OrderItemDiff;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * OrderService.updateOrder'daki item birleştirme (OrderItemDiff). Gelen listede item'ların
+ * yarısı id ile ve değişmiş adetle, dörtte biri yeni ürün olarak gelir, kalanlar silinir.
+ *
+ * apply siparişi değiştirdiği için her çağrıda sipariş yeniden kurulur; bu kurulumun payı
+ * {@link #buildOnly()} ile ayrıca ölçülür ve ondan çıkarılarak okunmalıdır.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ItemMergeBenchmark {
+
+	@Param({"5", "50", "500"})
+	public int itemCount;
+
+	private List<OrderItem> incoming;
+
+	@Setup
+	public void setUp() {
+		incoming = new ArrayList<>(itemCount);
+		List<OrderItem> current = Orders.withItems(itemCount).getItems();
+		for (int i = 0; i < itemCount / 2; i++) {
+			OrderItem item = new OrderItem(current.get(i).getProductId(), current.get(i).getQuantity() + 1);
+			item.setId(current.get(i).getId());
+			incoming.add(item);
+		}
+		for (int i = 0; i < Math.max(1, itemCount / 4); i++) {
+			incoming.add(new OrderItem("new-product-" + i, 1));
+		}
+	}
+
+	@Benchmark
+	public Order buildOnly() {
+		return Orders.withItems(itemCount);
+	}
+
+	@Benchmark
+	public OrderItemDiff buildAndMerge() {
+		return OrderItemDiff.apply(Orders.withItems(itemCount), incoming);
+	}
+}
@@ -0,0 +1,71 @@
+package com.example.orderservice.jmh;
+
+import com.example.orderservice.service.JwtService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Her request'te çalışan token doğrulama: cache'ten gelen claim'ler, cache kapalıyken tam
+ * imza + JSON çözümleme ve imzası tutmayan token'ın reddi.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtVerificationBenchmark {
+
+	private static final String SECRET = "supersecret_supersecretkey12345678";
+
+	private JwtService cachingService;
+	private JwtService nonCachingService;
+	private String token;
+	private String forgedToken;
+
+	@Setup
+	public void setUp() {
+		cachingService = new JwtService(new SimpleMeterRegistry(), true, 1_000, 3600);
+		// Cache kapalı: her doğrulama imza kontrolü ve parse'a gider
+		nonCachingService = new JwtService(new SimpleMeterRegistry(), false, 1_000, 3600);
+		token = Jwts.builder()
+				.claim("id", 7)
+				.setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(1)))
+				.signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+		String signature = token.substring(token.lastIndexOf('.') + 1);
+		forgedToken = token.substring(0, token.lastIndexOf('.') + 1) + new StringBuilder(signature).reverse();
+		cachingService.verifyToken(token);
+	}
+
+	@Benchmark
+	public Claims verifyCached() {
+		return cachingService.verifyToken(token);
+	}
+
+	@Benchmark
+	public Claims verifyUncached() {
+		return nonCachingService.verifyToken(token);
+	}
+
+	@Benchmark
+	public Claims rejectForged() {
+		return cachingService.tryVerify(forgedToken);
+	}
+}
@@ -0,0 +1,178 @@
+package com.example.orderservice.jmh;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.classic.util.LogbackMDCAdapter;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.OutputStreamAppender;
+import com.example.orderservice.logger.LoggerService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.LoggerFactory;
+
+import java.io.OutputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * LoggerService çağrı maliyeti. Kapalı seviyede parametreli çağrı ile string birleştirme arasındaki
+ * fark ve açık seviyede formatlama + encode maliyeti (disk yerine boş bir stream'e) ölçülür.
+ *
+ * requestOnSlowDisk, logback-spring.xml'deki AsyncAppender kurulumunu senkron dosya appender'ı ile
+ * karşılaştırır: disk her flush'ta {@link SlowDisk#FLUSH_MICROS} kadar bekler, birden çok request
+ * thread'i üçer INFO satırı yazar. Senkron modda gecikme (p99) disk süresini izler, async modda izlememelidir.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LoggerServiceBenchmark {
+
+	private LoggerService logger;
+	private Long orderId = 42L;
+	private String userId = "user-7";
+
+	@Setup
+	public void setUp() {
+		LoggerContext context = (LoggerContext) LoggerFactory.getILoggerFactory();
+		context.reset();
+
+		PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+		encoder.setContext(context);
+		encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss} [%thread] %-5level %logger{36} - %msg %kvp%n");
+		encoder.start();
+
+		OutputStreamAppender<ILoggingEvent> appender = new OutputStreamAppender<>();
+		appender.setContext(context);
+		appender.setName("NULL");
+		appender.setEncoder(encoder);
+		appender.setOutputStream(OutputStream.nullOutputStream());
+		appender.start();
+
+		ch.qos.logback.classic.Logger root = context.getLogger(org.slf4j.Logger.ROOT_LOGGER_NAME);
+		root.setLevel(Level.INFO);
+		root.addAppender(appender);
+		logger = new LoggerService();
+	}
+
+	@Benchmark
+	public void debugDisabledParameterized() {
+		logger.debug("order getting by id: {} for user {}", orderId, userId);
+	}
+
+	@Benchmark
+	public void debugDisabledConcatenated() {
+		logger.debug("order getting by id: " + orderId + " for user " + userId);
+	}
+
+	@Benchmark
+	public void debugDisabledFluent() {
+		logger.atDebug().addKeyValue("orderId", orderId).log("order status getting");
+	}
+
+	@Benchmark
+	public void infoEnabledParameterized() {
+		logger.info("order getting by id: {} for user {}", orderId, userId);
+	}
+
+	@Benchmark
+	public void infoEnabledFluent() {
+		logger.atInfo().addKeyValue("orderId", orderId).log("order status getting");
+	}
+
+	@Benchmark
+	@BenchmarkMode(Mode.SampleTime)
+	@OutputTimeUnit(TimeUnit.MICROSECONDS)
+	@Threads(4)
+	public void requestOnSlowDisk(SlowDisk disk) {
+		disk.logger.info("order getting by id: {}", orderId);
+		disk.logger.atInfo().addKeyValue("orderId", orderId).log("order status getting");
+		disk.logger.info("Order cancelled: {}", orderId);
+	}
+
+	// Kendi LoggerContext'i ile yavaş diske yazan logger; appender production kurulumunun aynısı
+	@State(Scope.Benchmark)
+	public static class SlowDisk {
+
+		static final long FLUSH_MICROS = 100;
+
+		@Param({"sync", "async"})
+		public String appender;
+
+		private LoggerContext context;
+		private ch.qos.logback.classic.Logger logger;
+
+		@Setup
+		public void setUp() {
+			context = new LoggerContext();
+			context.setMDCAdapter(new LogbackMDCAdapter());
+			context.start();
+
+			PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+			encoder.setContext(context);
+			encoder.setPattern("%d{yyyy-MM-dd HH:mm:ss} [%thread] %-5level %logger{36} - %msg %kvp%n");
+			encoder.start();
+
+			OutputStreamAppender<ILoggingEvent> file = new OutputStreamAppender<>();
+			file.setContext(context);
+			file.setName("FILE");
+			file.setEncoder(encoder);
+			file.setOutputStream(new SlowOutputStream());
+			file.start();
+
+			Appender<ILoggingEvent> target = file;
+			if ("async".equals(appender)) {
+				AsyncAppender async = new AsyncAppender();
+				async.setContext(context);
+				async.setName("ASYNC");
+				async.setQueueSize(8192);
+				async.setNeverBlock(true);
+				async.setIncludeCallerData(false);
+				async.addAppender(file);
+				async.start();
+				target = async;
+			}
+			logger = context.getLogger("benchmark");
+			logger.setLevel(Level.INFO);
+			logger.setAdditive(false);
+			logger.addAppender(target);
+		}
+
+		@TearDown
+		public void tearDown() {
+			context.stop();
+		}
+	}
+
+	private static final class SlowOutputStream extends OutputStream {
+
+		@Override
+		public void write(int b) {
+		}
+
+		@Override
+		public void write(byte[] b, int off, int len) {
+		}
+
+		@Override
+		public void flush() {
+			LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(SlowDisk.FLUSH_MICROS));
+		}
+	}
+}
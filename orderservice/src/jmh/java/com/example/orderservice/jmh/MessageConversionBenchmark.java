@@ -0,0 +1,75 @@
+package com.example.orderservice.jmh;
+
+import com.example.orderservice.messaging.OrderEventCodec;
+import com.example.orderservice.messaging.event.OrderEvent;
+import com.example.orderservice.model.OutboxEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * AMQP mesajına dönüştürme: RabbitTemplate'in Jackson2JsonMessageConverter'ı ile outbox'taki
+ * hazır byte'lardan mesaj kuran OrderEventCodec karşılaştırılır. Outbox yolu serileştirmeyi
+ * transaction içinde bir kez yapar, relay sadece header'ları ekler.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MessageConversionBenchmark {
+
+	@Param({"1", "10", "100"})
+	public int itemCount;
+
+	private final Jackson2JsonMessageConverter converter = new Jackson2JsonMessageConverter();
+	private final OrderEventCodec codec = new OrderEventCodec(new SimpleMeterRegistry(), OrderEventCodec.JSON);
+
+	private OrderEvent orderEvent;
+	private OutboxEvent outboxEvent;
+	private Message convertedMessage;
+
+	@Setup
+	public void setUp() {
+		orderEvent = OrderEvent.from(Orders.withItems(itemCount));
+		outboxEvent = new OutboxEvent(orderEvent.id(), "order.created", codec.encode(orderEvent),
+				OrderEventCodec.JSON, OrderEventCodec.SCHEMA_VERSION);
+		outboxEvent.setId(1L);
+		convertedMessage = converter.toMessage(orderEvent, new MessageProperties());
+	}
+
+	@Benchmark
+	public Message converterToMessage() {
+		return converter.toMessage(orderEvent, new MessageProperties());
+	}
+
+	@Benchmark
+	public Object converterFromMessage() {
+		return converter.fromMessage(convertedMessage);
+	}
+
+	@Benchmark
+	public Message codecToMessageFromOutbox() {
+		return codec.toMessage(outboxEvent);
+	}
+
+	@Benchmark
+	public OrderEvent codecDecode() {
+		return codec.decode(outboxEvent.getBody(), OrderEventCodec.JSON, OrderEvent.class);
+	}
+}
@@ -0,0 +1,25 @@
+package com.example.orderservice.jmh;
+
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+
+// Benchmark'ların ortak test verisi: id'leri atanmış, persist edilmiş gibi görünen siparişler
+final class Orders {
+
+	private Orders() {
+	}
+
+	static Order withItems(int itemCount) {
+		Order order = new Order();
+		order.setId(42L);
+		order.setUserId("user-7");
+		order.setStatus(OrderStatus.CREATED);
+		for (int i = 0; i < itemCount; i++) {
+			OrderItem item = new OrderItem("68b2c785fc165d6994d0ad" + (10 + i % 90), 1 + i % 5);
+			item.setId(1_000L + i);
+			order.addItem(item);
+		}
+		return order;
+	}
+}
@@ -0,0 +1,89 @@
+package com.example.orderservice.jmh;
+
+import com.example.orderservice.dto.OrderUpdatedDTO;
+import com.example.orderservice.messaging.OrderEventCodec;
+import com.example.orderservice.messaging.event.OrderEvent;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.service.OrderItemDiff;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Controller cevapları ve order event'leri için Jackson serileştirmesi: Order entity'si
+ * (REST cevabı), order.updated'ın OrderUpdatedDTO'su ve outbox'a yazılan OrderEvent (JSON / CBOR).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SerializationBenchmark {
+
+	@Param({"1", "10", "100"})
+	public int itemCount;
+
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final OrderEventCodec codec = new OrderEventCodec(new SimpleMeterRegistry(), OrderEventCodec.JSON);
+
+	private Order order;
+	private OrderEvent orderEvent;
+	private OrderUpdatedDTO orderUpdated;
+	private String orderJson;
+
+	@Setup
+	public void setUp() throws JsonProcessingException {
+		order = Orders.withItems(itemCount);
+		orderEvent = OrderEvent.from(order);
+		Order changed = Orders.withItems(itemCount);
+		OrderItemDiff diff = OrderItemDiff.apply(changed, Orders.withItems(itemCount + 2).getItems().subList(1, itemCount + 2));
+		orderUpdated = new OrderUpdatedDTO.Builder()
+				.orderId(changed.getId())
+				.userId(changed.getUserId())
+				.status(changed.getStatus())
+				.added(diff.getAdded())
+				.removed(diff.getRemoved())
+				.quantityChanged(diff.getQuantityChanged())
+				.build();
+		orderJson = mapper.writeValueAsString(order);
+	}
+
+	@Benchmark
+	public String writeOrder() throws JsonProcessingException {
+		return mapper.writeValueAsString(order);
+	}
+
+	@Benchmark
+	public Order readOrder() throws JsonProcessingException {
+		return mapper.readValue(orderJson, Order.class);
+	}
+
+	@Benchmark
+	public String writeOrderUpdatedDto() throws JsonProcessingException {
+		return mapper.writeValueAsString(orderUpdated);
+	}
+
+	@Benchmark
+	public byte[] encodeOrderEventJson() {
+		return codec.encode(orderEvent, OrderEventCodec.JSON);
+	}
+
+	@Benchmark
+	public byte[] encodeOrderEventCbor() {
+		return codec.encode(orderEvent, OrderEventCodec.CBOR);
+	}
+}
@@ -2,6 +2,7 @@ package com.example.orderservice;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 import io.jsonwebtoken.Claims;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
@@ -14,8 +15,11 @@ import java.security.Key;
  * 1. @Configuration: Bu sınıfın Spring konfigürasyonu içerdiğini belirtir.
  * 2. @EnableAutoConfiguration: Spring Boot'un uygulaman için gerekli bean'leri otomatik oluşturmasını sağlar.
  * 3. @ComponentScan: Aynı paketteki veya alt paketlerdeki @Component, @Service, @Repository gibi bean'leri otomatik tarar.
+ *
+ * @EnableScheduling: OutboxRelay gibi @Scheduled görevleri çalıştırır.
  */
 @SpringBootApplication
+@EnableScheduling
 public class OrderserviceApplication {
 
     /**
@@ -0,0 +1,71 @@
+package com.example.orderservice.configuration;
+
+import io.micrometer.core.instrument.Meter;
+import io.micrometer.core.instrument.config.MeterFilter;
+import io.micrometer.core.instrument.distribution.DistributionStatisticConfig;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Kapasite planlaması için operasyon başına p99: aşağıdaki timer'lar Prometheus'a histogram
+ * bucket'ları ile yayınlanır, yüzdelikler sorgu tarafında histogram_quantile ile hesaplanır.
+ *
+ * Endpoint süreleri http.server.requests (uri tag'i), repository metotları
+ * spring.data.repository.invocations (repository ve method tag'leri) olarak Spring Boot'tan gelir;
+ * diğerleri uygulamanın kendi timer'larıdır.
+ */
+@Configuration
+public class MetricsConfig {
+
+    private static final List<String> REQUEST_TIMERS = List.of(
+            "http.server.requests",
+            "spring.data.repository.invocations",
+            "publisher.confirm.latency",
+            "orders.consumer.batch",
+            "outbox.relay");
+
+    // Mikrosaniye mertebesindeki işlemler; varsayılan 1ms alt sınırla hepsi ilk bucket'a düşerdi
+    private static final List<String> FAST_TIMERS = List.of(
+            "jwt.verify",
+            "events.codec");
+
+    @Bean
+    public MeterFilter operationHistograms() {
+        DistributionStatisticConfig request = DistributionStatisticConfig.builder()
+                .percentilesHistogram(true)
+                .build();
+        DistributionStatisticConfig fast = DistributionStatisticConfig.builder()
+                .percentilesHistogram(true)
+                .minimumExpectedValue((double) Duration.ofNanos(1_000).toNanos())
+                .maximumExpectedValue((double) Duration.ofMillis(100).toNanos())
+                .build();
+
+        return new MeterFilter() {
+            @Override
+            public DistributionStatisticConfig configure(Meter.Id id, DistributionStatisticConfig config) {
+                if (id.getType() != Meter.Type.TIMER) {
+                    return config;
+                }
+                if (matches(FAST_TIMERS, id)) {
+                    return fast.merge(config);
+                }
+                if (matches(REQUEST_TIMERS, id)) {
+                    return request.merge(config);
+                }
+                return config;
+            }
+        };
+    }
+
+    private static boolean matches(List<String> prefixes, Meter.Id id) {
+        for (String prefix : prefixes) {
+            if (id.getName().equals(prefix) || id.getName().startsWith(prefix + ".")) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
@@ -6,17 +6,23 @@ import org.springframework.amqp.core.Binding;
 import org.springframework.amqp.core.BindingBuilder;
 import org.springframework.amqp.core.Queue;
 import org.springframework.amqp.core.TopicExchange;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
 import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
 import org.springframework.amqp.rabbit.connection.ConnectionFactory;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
 import org.springframework.amqp.support.converter.Jackson2JsonMessageConverter;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.RabbitProperties;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
 
 @Configuration
 public class RabbitConfig {
 
     public static final String EXCHANGE = "amq.topic";
+    public static final String INVENTORY_REPLY_QUEUE = "order.inventory.reply.queue";
 
     // --- Exchange ---
     @Bean
@@ -34,6 +40,15 @@ public class RabbitConfig {
     @Bean
     public Queue orderDeletedQueue() { return new Queue(RabbitQueue.ORDER_DELETED.getQueueName(), true); }
 
+    // userservice'in yayınladığı kuyruklar, OrderConsumer bunları dinler
+    @Bean
+    public Queue userRegisteredQueue() { return new Queue("user.registered", true); }
+    @Bean
+    public Queue userDeletedQueue() { return new Queue("user.deleted", true); }
+    // productservice'in stok cevapları (inventory.reserved / inventory.insufficient)
+    @Bean
+    public Queue inventoryReplyQueue() { return new Queue(INVENTORY_REPLY_QUEUE, true); }
+
     // --- Binding ---
     @Bean
     public Binding orderCreatedBinding(Queue orderCreatedQueue, TopicExchange topicExchange) {
@@ -52,6 +67,10 @@ public class RabbitConfig {
         return BindingBuilder.bind(orderCanceledQueue).to(topicExchange).with(RabbitQueue.ORDER_CANCELED.getRoutingKey());
     }
     @Bean
+    public Binding inventoryReplyBinding(Queue inventoryReplyQueue, TopicExchange topicExchange) {
+        return BindingBuilder.bind(inventoryReplyQueue).to(topicExchange).with("inventory.*");
+    }
+    @Bean
     public Binding orderDeletedBinding(Queue orderDeletedQueue, TopicExchange topicExchange) {
         return BindingBuilder.bind(orderDeletedQueue).to(topicExchange).with(RabbitQueue.ORDER_DELETED.getRoutingKey());
     }
@@ -63,11 +82,16 @@ public class RabbitConfig {
     }
 
     // --- ConnectionFactory ---
+    // Adres ve kimlik bilgileri spring.rabbitmq.* ayarlarından gelir
     @Bean
-    public CachingConnectionFactory connectionFactory() {
-        CachingConnectionFactory factory = new CachingConnectionFactory("localhost");
-        factory.setUsername("guest");
-        factory.setPassword("guest");
+    public CachingConnectionFactory connectionFactory(RabbitProperties properties,
+                                                      @Value("${rabbit.channel-cache-size:25}") int channelCacheSize) {
+        CachingConnectionFactory factory = new CachingConnectionFactory(properties.determineHost(), properties.determinePort());
+        factory.setUsername(properties.determineUsername());
+        factory.setPassword(properties.determinePassword());
+        factory.setVirtualHost(properties.determineVirtualHost());
+        // Listener consumer'ları, relay ve retry aynı bağlantı üzerinde kanal paylaşır
+        factory.setChannelCacheSize(channelCacheSize);
 
         factory.setPublisherConfirmType(CachingConnectionFactory.ConfirmType.CORRELATED);
         factory.setPublisherReturns(true);
@@ -75,25 +99,53 @@ public class RabbitConfig {
         return factory;
     }
 
+    // --- Batch listener'lar ---
+    // Mesajlar batch-size'a ulaşınca ya da receive-timeout dolunca tek listede gelir
     @Bean
-    public RabbitTemplate rabbitTemplate(CachingConnectionFactory connectionFactory) {
-        RabbitTemplate template = new RabbitTemplate(connectionFactory);
-        template.setMandatory(true);
+    public SimpleRabbitListenerContainerFactory userEventListenerFactory(SimpleRabbitListenerContainerFactoryConfigurer configurer,
+                                                                         CachingConnectionFactory connectionFactory,
+                                                                         @Value("${users.listener.batch-size:100}") int batchSize,
+                                                                         @Value("${users.listener.receive-timeout-ms:200}") long receiveTimeoutMs,
+                                                                         @Value("${users.listener.prefetch:250}") int prefetch,
+                                                                         @Value("${users.listener.concurrency:2}") int concurrency,
+                                                                         @Value("${users.listener.max-concurrency:4}") int maxConcurrency) {
+        return batchListenerFactory(configurer, connectionFactory, batchSize, receiveTimeoutMs, prefetch, concurrency, maxConcurrency);
+    }
 
-        template.setConfirmCallback((correlationData, ack, cause) -> {
-            if (ack) {
-                System.out.println("✅ Order transmitted to exchange.!");
-            } else {
-                System.out.println("❌ Order not transmitted! Cause: " + cause);
-            }
-        });
+    @Bean
+    public SimpleRabbitListenerContainerFactory inventoryReplyListenerFactory(SimpleRabbitListenerContainerFactoryConfigurer configurer,
+                                                                              CachingConnectionFactory connectionFactory,
+                                                                              @Value("${saga.listener.batch-size:200}") int batchSize,
+                                                                              @Value("${saga.listener.receive-timeout-ms:50}") long receiveTimeoutMs,
+                                                                              @Value("${saga.listener.prefetch:500}") int prefetch,
+                                                                              @Value("${saga.listener.concurrency:2}") int concurrency,
+                                                                              @Value("${saga.listener.max-concurrency:8}") int maxConcurrency) {
+        return batchListenerFactory(configurer, connectionFactory, batchSize, receiveTimeoutMs, prefetch, concurrency, maxConcurrency);
+    }
 
-        template.setReturnsCallback(returned -> {
-            System.out.println("⚠️ Message not directed to queue:");
-            System.out.println("↳ ReplyText: " + returned.getReplyText());
-            System.out.println("↳ RoutingKey: " + returned.getRoutingKey());
-        });
+    private SimpleRabbitListenerContainerFactory batchListenerFactory(SimpleRabbitListenerContainerFactoryConfigurer configurer,
+                                                                      CachingConnectionFactory connectionFactory,
+                                                                      int batchSize, long receiveTimeoutMs, int prefetch,
+                                                                      int concurrency, int maxConcurrency) {
+        SimpleRabbitListenerContainerFactory factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(batchSize);
+        factory.setReceiveTimeout(receiveTimeoutMs);
+        factory.setPrefetchCount(prefetch);
+        factory.setConcurrentConsumers(concurrency);
+        factory.setMaxConcurrentConsumers(maxConcurrency);
+        return factory;
+    }
 
+    // Confirm ve return callback'leri ConfirmedPublishEngine tarafından kaydedilir.
+    // loadtest profilinde yerine test kaynaklarındaki LoadTestConfig'in süreç içi template'i gelir
+    @Bean
+    @Profile("!loadtest")
+    public RabbitTemplate rabbitTemplate(CachingConnectionFactory connectionFactory) {
+        RabbitTemplate template = new RabbitTemplate(connectionFactory);
+        template.setMandatory(true);
         return template;
     }
 }
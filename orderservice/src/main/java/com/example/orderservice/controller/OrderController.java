@@ -1,75 +1,134 @@
 package com.example.orderservice.controller;
 
+import com.example.orderservice.dto.BulkOrderRequest;
+import com.example.orderservice.dto.BulkOrderResult;
+import com.example.orderservice.dto.CursorPage;
+import com.example.orderservice.dto.OrderStatusDTO;
+import com.example.orderservice.dto.OrderStatusView;
+import com.example.orderservice.dto.UserOrderSummaryDTO;
 import com.example.orderservice.model.Order;
 import com.example.orderservice.model.OrderItem;
 import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.security.AuthenticatedUser;
+import com.example.orderservice.service.BulkOrderService;
 import com.example.orderservice.service.OrderService;
-import com.example.orderservice.service.JwtService;
+import com.example.orderservice.service.UserDirectory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
 import org.springframework.http.ResponseEntity;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.web.bind.annotation.*;
-import io.jsonwebtoken.Claims;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 
 
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
 import java.util.Optional;
 
+// Kimlik doğrulama JwtAuthenticationFilter'da yapılır, buraya sadece geçerli token'lı istekler ulaşır
 @RestController
 @RequestMapping("/orders")
 public class OrderController {
 
-    @Autowired
-    private JwtService jwtService;
+    private static final String NDJSON = "application/x-ndjson";
 
     @Autowired
     private OrderService orderService;
 
+    @Autowired
+    private BulkOrderService bulkOrderService;
+
+    @Autowired
+    private UserDirectory userDirectory;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Value("${order.batch.max-size:1000}")
+    private int maxBatchSize;
+
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<Order>> getOrdersByUserId(@RequestHeader("Authorization") String authHeader, @PathVariable String userId) {
-        String token = authHeader.replace("Bearer ", "");
-        Claims claims = jwtService.verifyToken(token);
-        if (claims == null){
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        }
+    public ResponseEntity<List<Order>> getOrdersByUserId(@PathVariable String userId) {
         List<Order> orders = orderService.getOrdersByUserId(userId);
         return ResponseEntity.ok(orders);
     }
 
+    // Tek satırlık özet okuması; siparişi olmayan kullanıcı için sıfırlar döner
+    @GetMapping("/user/{userId}/summary")
+    public ResponseEntity<UserOrderSummaryDTO> getOrderSummaryByUserId(@PathVariable String userId) {
+        UserOrderSummaryDTO summary = new UserOrderSummaryDTO(userId, orderService.getOrderSummaryByUserId(userId).orElse(null));
+        return ResponseEntity.ok(summary);
+    }
+
+    // Siparişleri NDJSON olarak satır satır yazar, yanıt belleğe toplanmaz
+    @GetMapping(value = "/user/{userId}/export", produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> exportOrdersByUserId(@PathVariable String userId) {
+        // Stream başladıktan sonra hata dönülemez, kullanıcı kontrolü önceden yapılır
+        userDirectory.requireActive(userId);
+        ObjectWriter writer = objectMapper.writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        StreamingResponseBody body = out -> {
+            OutputStream buffered = new BufferedOutputStream(out, 64 * 1024);
+            orderService.streamOrdersByUserId(userId, order -> {
+                try {
+                    writer.writeValue(buffered, order);
+                    buffered.write('\n');
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            buffered.flush();
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
     @GetMapping
-    public ResponseEntity<Page<Order>> getAllOrders(@RequestHeader("Authorization") String authHeader,
-            @RequestParam(defaultValue = "0") int page,
+    public ResponseEntity<Page<Order>> getAllOrders(@RequestParam(defaultValue = "0") int page,
             @RequestParam(defaultValue = "10") int size
     ) {
-        String token = authHeader.replace("Bearer ", "");
-        Claims claims = jwtService.verifyToken(token);
-        if (claims == null){
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        }
         Page<Order> orders = orderService.getAllOrders(page, size);
         return ResponseEntity.ok(orders);
     }
 
+    // Büyük listeler için keyset sayfalama; page/size yukarıdaki küçük admin ekranları için kalır
+    @GetMapping("/cursor")
+    public ResponseEntity<CursorPage<Order>> getOrdersByCursor(@RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "50") int size,
+            @RequestParam(required = false) OrderStatus status,
+            @RequestParam(defaultValue = "false") boolean includeTotal
+    ) {
+        CursorPage<Order> orders = orderService.getOrdersAfter(cursor, size, status, includeTotal);
+        return ResponseEntity.ok(orders);
+    }
+
+    // Sık poll edilen endpoint: sadece status/version okunur, değişmediyse gövdesiz 304 döner
     @GetMapping("/status/{orderId}")
-    public ResponseEntity<Order> getOrderStatusByOrderId(@RequestHeader("Authorization") String authHeader, @PathVariable Long orderId) {
-        String token = authHeader.replace("Bearer ", "");
-        Claims claims = jwtService.verifyToken(token);
-        if (claims == null){
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    public ResponseEntity<OrderStatusDTO> getOrderStatusByOrderId(@PathVariable Long orderId, WebRequest request) {
+        Optional<OrderStatusView> optionalStatus = orderService.getOrderStatusView(orderId);
+        if (optionalStatus.isEmpty()) {
+            return ResponseEntity.notFound().build();
         }
-        Optional<Order> optionalOrder = orderService.getOrderById(orderId);
-        return optionalOrder.map(ResponseEntity::ok)
-                .orElseGet(() -> ResponseEntity.notFound().build());
+        String etag = "\"" + optionalStatus.get().getVersion() + "\"";
+        if (request.checkNotModified(etag)) {
+            return null;
+        }
+        return ResponseEntity.ok()
+                .eTag(etag)
+                .cacheControl(CacheControl.noCache())
+                .body(new OrderStatusDTO(optionalStatus.get()));
     }
 
     @GetMapping("/{orderId}")
-    public ResponseEntity<Order> getOrderById(@RequestHeader("Authorization") String authHeader, @PathVariable Long orderId) {
-        String token = authHeader.replace("Bearer ", "");
-        Claims claims = jwtService.verifyToken(token);
-        if (claims == null){
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        }
+    public ResponseEntity<Order> getOrderById(@PathVariable Long orderId) {
         Optional<Order> optionalOrder = orderService.getOrderById(orderId);
         if(!optionalOrder.isPresent()){
             return ResponseEntity.notFound().build();
@@ -78,63 +137,67 @@ public class OrderController {
     }
 
     @PostMapping
-    public ResponseEntity<Order> createOrder(@RequestHeader("Authorization") String authHeader, @RequestBody Order order) {
+    public ResponseEntity<Order> createOrder(AuthenticatedUser user, @RequestBody Order order) {
         for (OrderItem item : order.getItems()) {
             item.setOrder(order);
         }
-        String token = authHeader.replace("Bearer ", "");
-        Claims claims = jwtService.verifyToken(token);
-        Integer userId = claims.get("id", Integer.class);
-        order.setUserId(String.valueOf(userId));
+        order.setUserId(user.getUserId());
         Order createdOrder = orderService.createOrder(order);
         return ResponseEntity.ok(createdOrder);
     }
 
-    @PatchMapping("/{orderId}/cancel")
-    public ResponseEntity<Order> cancelOrder(@RequestHeader("Authorization") String authHeader, @PathVariable Long orderId) {
-        String token = authHeader.replace("Bearer ", "");
-        Claims claims = jwtService.verifyToken(token);
-        if (claims == null){
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    // Marketplace import'ları için: tüm siparişler tek transaction'da, batch insert ile oluşturulur
+    @PostMapping("/batch")
+    public ResponseEntity<List<Order>> createOrders(AuthenticatedUser user, @RequestBody List<Order> orders) {
+        if (orders.isEmpty() || orders.size() > maxBatchSize) {
+            return ResponseEntity.badRequest().build();
+        }
+        for (Order order : orders) {
+            for (OrderItem item : order.getItems()) {
+                item.setOrder(order);
+            }
+            order.setUserId(user.getUserId());
         }
+        List<Order> createdOrders = orderService.createOrders(orders);
+        return ResponseEntity.ok(createdOrders);
+    }
+
+    @PatchMapping("/{orderId}/cancel")
+    public ResponseEntity<Order> cancelOrder(@PathVariable Long orderId) {
         Optional<Order> optionalOrder = orderService.cancelOrder(orderId);
         return optionalOrder.map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
-    @PutMapping("/{orderId}")
-    public ResponseEntity<Order> updateOrder(@RequestHeader("Authorization") String authHeader, @PathVariable Long orderId, @RequestBody Order updatedOrder) {
-        String token = authHeader.replace("Bearer ", "");
-        Claims claims = jwtService.verifyToken(token);
-        if(claims == null){
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    // Toplu durum değişikliği (ör. fraud taraması sonrası iptal, sadece admin); geçişi geçersiz siparişler atlanıp cevapta listelenir
+    @PatchMapping("/status")
+    public ResponseEntity<BulkOrderResult> changeOrderStatuses(AuthenticatedUser user, @RequestBody BulkOrderRequest request) {
+        if (!user.isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (!isValidBatch(request.getIds()) || !BulkOrderService.isBulkTarget(request.getStatus())) {
+            return ResponseEntity.badRequest().build();
         }
+        return ResponseEntity.ok(bulkOrderService.changeStatus(request.getIds(), request.getStatus()));
+    }
+
+    @PutMapping("/{orderId}")
+    public ResponseEntity<Order> updateOrder(@PathVariable Long orderId, @RequestBody Order updatedOrder) {
         Optional<Order> optionalOrder = orderService.updateOrder(orderId, updatedOrder.getItems());
         return optionalOrder.map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @PatchMapping("/addProduct/{orderId}")
-    public ResponseEntity<Order> addItemToOrder(@RequestHeader("Authorization") String authHeader, @PathVariable Long orderId, @RequestBody OrderItem newItem) {
-        String token = authHeader.replace("Bearer ", "");
-        Claims claims = jwtService.verifyToken(token);
-        if (claims == null){
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        }
+    public ResponseEntity<Order> addItemToOrder(@PathVariable Long orderId, @RequestBody OrderItem newItem) {
         Optional<Order> optionalAddedOrder = orderService.addOrderItemToOrder(orderId, newItem);
         return optionalAddedOrder.map(ResponseEntity::ok)
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     @DeleteMapping("/{orderId}/items/{itemId}")
-    public ResponseEntity<Order> removeItemFromOrder(@RequestHeader("Authorization") String authHeader,
-            @PathVariable Long orderId,
+    public ResponseEntity<Order> removeItemFromOrder(@PathVariable Long orderId,
             @PathVariable Long itemId) {
-        String token = authHeader.replace("Bearer ", "");
-        Claims claims = jwtService.verifyToken(token);
-        if (claims == null){
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
-        }
         Optional<Order> updatedOrder = orderService.removeItemFromOrder(orderId, itemId);
 
         return updatedOrder
@@ -142,13 +205,28 @@ public class OrderController {
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
-    @DeleteMapping("/{orderId}")
-    public ResponseEntity<String> removeOrder(@RequestHeader("Authorization") String authHeader, @PathVariable Long orderId){
-        String token = authHeader.replace("Bearer ", "");
-        Claims claims = jwtService.verifyToken(token);
-        if (claims == null){
-            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).build();
+    // Id listesiyle toplu işlemler farklı kullanıcıların siparişlerine dokunur, sadece admin çağırabilir
+    @DeleteMapping
+    public ResponseEntity<BulkOrderResult> removeOrders(AuthenticatedUser user, @RequestBody BulkOrderRequest request) {
+        if (!user.isAdmin()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
+        }
+        if (!isValidBatch(request.getIds())) {
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(bulkOrderService.deleteOrders(request.getIds()));
+    }
+
+    @DeleteMapping("/user/{userId}")
+    public ResponseEntity<BulkOrderResult> removeOrdersByUserId(AuthenticatedUser user, @PathVariable String userId) {
+        if (!user.canActFor(userId)) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN).build();
         }
+        return ResponseEntity.ok(bulkOrderService.deleteOrdersByUserId(userId));
+    }
+
+    @DeleteMapping("/{orderId}")
+    public ResponseEntity<String> removeOrder(@PathVariable Long orderId){
         boolean removed = orderService.removeOrderById(orderId);
 
         if(removed){
@@ -157,4 +235,8 @@ public class OrderController {
             return ResponseEntity.status(HttpStatus.NOT_FOUND).body("Order with ID " + orderId + " not found.");
         }
     }
+
+    private boolean isValidBatch(List<Long> ids) {
+        return ids != null && !ids.isEmpty() && ids.size() <= maxBatchSize;
+    }
 }
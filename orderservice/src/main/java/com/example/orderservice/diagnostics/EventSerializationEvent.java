@@ -0,0 +1,39 @@
+package com.example.orderservice.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(EventSerializationEvent.NAME)
+@Label("Order Event Serialization")
+@Description("Encoding one order event into its outbox body")
+@Category({"Order Service", "Write Path"})
+@StackTrace(false)
+public class EventSerializationEvent extends Event {
+
+    public static final String NAME = "com.example.orderservice.EventSerialization";
+
+    @Label("Order Id")
+    private long orderId;
+
+    @Label("Routing Key")
+    private String routingKey;
+
+    @Label("Payload Size")
+    @DataAmount
+    private int payloadSize;
+
+    public void commit(long orderId, String routingKey, int payloadSize) {
+        end();
+        if (shouldCommit()) {
+            this.orderId = orderId;
+            this.routingKey = routingKey;
+            this.payloadSize = payloadSize;
+            commit();
+        }
+    }
+}
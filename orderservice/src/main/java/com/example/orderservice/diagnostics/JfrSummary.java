@@ -0,0 +1,195 @@
+package com.example.orderservice.diagnostics;
+
+import jdk.jfr.ValueDescriptor;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+
+/**
+ * Bir JFR kaydını sipariş yazma yolunun aşamalarına (JWT doğrulama, order + item insert'leri,
+ * event serileştirme, broker'a gönderim) göre gecikme dağılımı olarak özetler.
+ *
+ * Aşama event'leri stack trace almaz ve kayıt yokken maliyetsizdir; sürekli açık bırakılabilir:
+ * <pre>
+ * java -XX:StartFlightRecording=filename=orders.jfr,maxage=1h -jar orderservice.jar
+ * jcmd &lt;pid&gt; JFR.dump filename=orders.jfr
+ * java -cp target/classes com.example.orderservice.diagnostics.JfrSummary orders.jfr [slowest]
+ * </pre>
+ * Aşama başına sayı, p50/p90/p99/max, toplam süre ve payload/item ortalaması yazılır; ardından
+ * en yavaş event'ler order id'leri ile listelenir.
+ */
+public final class JfrSummary {
+
+    private static final Map<String, String> STAGES = new LinkedHashMap<>();
+
+    static {
+        STAGES.put(JwtVerificationEvent.NAME, "jwt.verify");
+        STAGES.put(OrderPersistEvent.NAME, "order.persist");
+        STAGES.put(EventSerializationEvent.NAME, "event.serialize");
+        STAGES.put(OrderPublishEvent.NAME, "event.publish");
+    }
+
+    private JfrSummary() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.err.println("usage: JfrSummary <recording.jfr> [slowest]");
+            System.exit(2);
+        }
+        int slowest = args.length > 1 ? Integer.parseInt(args[1]) : 10;
+        summarize(Path.of(args[0]), slowest).print(System.out);
+    }
+
+    public static Summary summarize(Path recording, int slowest) throws IOException {
+        Map<String, StageStats> stats = new LinkedHashMap<>();
+        STAGES.forEach((name, stage) -> stats.put(name, new StageStats(stage)));
+        PriorityQueue<RecordedEvent> slowestEvents = new PriorityQueue<>(Comparator.comparing(RecordedEvent::getDuration));
+
+        try (RecordingFile file = new RecordingFile(recording)) {
+            while (file.hasMoreEvents()) {
+                RecordedEvent event = file.readEvent();
+                StageStats stage = stats.get(event.getEventType().getName());
+                if (stage == null) {
+                    continue;
+                }
+                stage.add(event);
+                if (slowest > 0) {
+                    slowestEvents.add(event);
+                    if (slowestEvents.size() > slowest) {
+                        slowestEvents.poll();
+                    }
+                }
+            }
+        }
+
+        List<StageSummary> stages = new ArrayList<>(stats.size());
+        for (StageStats stage : stats.values()) {
+            stages.add(stage.summary());
+        }
+        List<String> slowestLines = new ArrayList<>(slowestEvents.size());
+        while (!slowestEvents.isEmpty()) {
+            slowestLines.add(0, describe(slowestEvents.poll()));
+        }
+        return new Summary(stages, slowestLines);
+    }
+
+    private static String describe(RecordedEvent event) {
+        StringBuilder line = new StringBuilder()
+                .append(String.format("%-16s %10.3f ms ", STAGES.get(event.getEventType().getName()), millis(event.getDuration())))
+                .append(event.getStartTime());
+        for (ValueDescriptor field : event.getEventType().getFields()) {
+            if (isPayloadField(field)) {
+                line.append(' ').append(field.getName()).append('=').append((Object) event.getValue(field.getName()));
+            }
+        }
+        return line.toString();
+    }
+
+    // startTime, duration, eventThread gibi JFR'ın standart alanları dışında kalanlar
+    private static boolean isPayloadField(ValueDescriptor field) {
+        return !field.getName().equals("startTime") && !field.getName().equals("duration")
+                && !field.getName().equals("eventThread") && !field.getName().equals("stackTrace");
+    }
+
+    private static double millis(Duration duration) {
+        return duration.toNanos() / 1e6;
+    }
+
+    public record StageSummary(String stage, int count, Duration p50, Duration p90, Duration p99, Duration max,
+                               Duration total, double averageItems, double averagePayloadBytes) {
+    }
+
+    public record Summary(List<StageSummary> stages, List<String> slowest) {
+
+        public StageSummary stage(String stage) {
+            return stages.stream().filter(summary -> summary.stage().equals(stage)).findFirst().orElseThrow();
+        }
+
+        public void print(PrintStream out) {
+            long totalNanos = stages.stream().mapToLong(stage -> stage.total().toNanos()).sum();
+            out.printf("%-16s %8s %10s %10s %10s %10s %12s %7s %10s %10s%n",
+                    "stage", "count", "p50 ms", "p90 ms", "p99 ms", "max ms", "total ms", "share", "avg items", "avg bytes");
+            for (StageSummary stage : stages) {
+                out.printf("%-16s %8d %10.3f %10.3f %10.3f %10.3f %12.1f %6.1f%% %10s %10s%n",
+                        stage.stage(), stage.count(), millis(stage.p50()), millis(stage.p90()), millis(stage.p99()),
+                        millis(stage.max()), millis(stage.total()),
+                        totalNanos == 0 ? 0.0 : 100.0 * stage.total().toNanos() / totalNanos,
+                        format(stage.averageItems()), format(stage.averagePayloadBytes()));
+            }
+            if (!slowest.isEmpty()) {
+                out.println();
+                out.println("slowest events:");
+                slowest.forEach(out::println);
+            }
+        }
+
+        private static String format(double average) {
+            return Double.isNaN(average) ? "-" : String.format("%.1f", average);
+        }
+    }
+
+    private static final class StageStats {
+        private final String stage;
+        private long[] durations = new long[1024];
+        private int count;
+        private long items;
+        private long itemSamples;
+        private long payloadBytes;
+        private long payloadSamples;
+
+        private StageStats(String stage) {
+            this.stage = stage;
+        }
+
+        private void add(RecordedEvent event) {
+            if (count == durations.length) {
+                durations = Arrays.copyOf(durations, count * 2);
+            }
+            durations[count++] = event.getDuration().toNanos();
+            if (event.hasField("itemCount")) {
+                items += event.getInt("itemCount");
+                itemSamples++;
+            } else if (event.hasField("eventCount")) {
+                items += event.getInt("eventCount");
+                itemSamples++;
+            }
+            if (event.hasField("payloadSize")) {
+                payloadBytes += event.getInt("payloadSize");
+                payloadSamples++;
+            }
+        }
+
+        private StageSummary summary() {
+            long[] sorted = Arrays.copyOf(durations, count);
+            Arrays.sort(sorted);
+            long total = 0;
+            for (long duration : sorted) {
+                total += duration;
+            }
+            return new StageSummary(stage, count, percentile(sorted, 0.50), percentile(sorted, 0.90),
+                    percentile(sorted, 0.99), percentile(sorted, 1.0), Duration.ofNanos(total),
+                    itemSamples == 0 ? Double.NaN : (double) items / itemSamples,
+                    payloadSamples == 0 ? Double.NaN : (double) payloadBytes / payloadSamples);
+        }
+
+        private static Duration percentile(long[] sorted, double quantile) {
+            if (sorted.length == 0) {
+                return Duration.ZERO;
+            }
+            int index = (int) Math.ceil(quantile * sorted.length) - 1;
+            return Duration.ofNanos(sorted[Math.max(0, index)]);
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.example.orderservice.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(JwtVerificationEvent.NAME)
+@Label("JWT Verification")
+@Description("Token signature check and claims parsing for one request")
+@Category({"Order Service", "Write Path"})
+@StackTrace(false)
+public class JwtVerificationEvent extends Event {
+
+    public static final String NAME = "com.example.orderservice.JwtVerification";
+
+    @Label("Result")
+    @Description("cached, parsed or rejected")
+    private String result;
+
+    public void commit(String result) {
+        end();
+        if (shouldCommit()) {
+            this.result = result;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.example.orderservice.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(OrderPersistEvent.NAME)
+@Label("Order Persist")
+@Description("Order insert with its cascaded order_items inserts, flushed to the database")
+@Category({"Order Service", "Write Path"})
+@StackTrace(false)
+public class OrderPersistEvent extends Event {
+
+    public static final String NAME = "com.example.orderservice.OrderPersist";
+
+    @Label("Order Id")
+    private long orderId;
+
+    @Label("Item Count")
+    private int itemCount;
+
+    public void commit(long orderId, int itemCount) {
+        end();
+        if (shouldCommit()) {
+            this.orderId = orderId;
+            this.itemCount = itemCount;
+            commit();
+        }
+    }
+}
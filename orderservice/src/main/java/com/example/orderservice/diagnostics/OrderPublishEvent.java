@@ -0,0 +1,44 @@
+package com.example.orderservice.diagnostics;
+
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name(OrderPublishEvent.NAME)
+@Label("Order Event Publish")
+@Description("Handing one message to the broker, including time blocked on a full confirm window")
+@Category({"Order Service", "Write Path"})
+@StackTrace(false)
+public class OrderPublishEvent extends Event {
+
+    public static final String NAME = "com.example.orderservice.OrderPublish";
+
+    @Label("Order Id")
+    @Description("Order of the first event in the message")
+    private long orderId;
+
+    @Label("Routing Key")
+    private String routingKey;
+
+    @Label("Event Count")
+    private int eventCount;
+
+    @Label("Payload Size")
+    @DataAmount
+    private int payloadSize;
+
+    public void commit(long orderId, String routingKey, int eventCount, int payloadSize) {
+        end();
+        if (shouldCommit()) {
+            this.orderId = orderId;
+            this.routingKey = routingKey;
+            this.eventCount = eventCount;
+            this.payloadSize = payloadSize;
+            commit();
+        }
+    }
+}
@@ -0,0 +1,18 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.model.OrderStatus;
+
+import java.util.List;
+
+// PATCH /orders/status ve DELETE /orders gövdesi; status sadece durum değişikliğinde kullanılır
+public class BulkOrderRequest {
+
+    private List<Long> ids;
+    private OrderStatus status;
+
+    public List<Long> getIds() { return ids; }
+    public void setIds(List<Long> ids) { this.ids = ids; }
+
+    public OrderStatus getStatus() { return status; }
+    public void setStatus(OrderStatus status) { this.status = status; }
+}
@@ -0,0 +1,18 @@
+package com.example.orderservice.dto;
+
+import java.util.List;
+
+// Toplu işlem cevabı; skippedIds bulunamayan ya da geçişi geçersiz olan siparişler
+public class BulkOrderResult {
+
+    private final int affected;
+    private final List<Long> skippedIds;
+
+    public BulkOrderResult(int affected, List<Long> skippedIds) {
+        this.affected = affected;
+        this.skippedIds = skippedIds;
+    }
+
+    public int getAffected() { return affected; }
+    public List<Long> getSkippedIds() { return skippedIds; }
+}
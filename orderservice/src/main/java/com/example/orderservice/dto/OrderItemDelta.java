@@ -0,0 +1,23 @@
+package com.example.orderservice.dto;
+
+// order.updated event'inde tek bir item değişikliği; eklenende oldQuantity 0, silinende newQuantity 0
+public class OrderItemDelta {
+
+    private final Long itemId;
+    private final String productId;
+    private final int oldQuantity;
+    private final int newQuantity;
+
+    public OrderItemDelta(Long itemId, String productId, int oldQuantity, int newQuantity) {
+        this.itemId = itemId;
+        this.productId = productId;
+        this.oldQuantity = oldQuantity;
+        this.newQuantity = newQuantity;
+    }
+
+    public Long getItemId() { return itemId; }
+    public String getProductId() { return productId; }
+    public int getOldQuantity() { return oldQuantity; }
+    public int getNewQuantity() { return newQuantity; }
+    public int getQuantityDelta() { return newQuantity - oldQuantity; }
+}
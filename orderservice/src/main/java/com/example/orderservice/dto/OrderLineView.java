@@ -0,0 +1,15 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.model.OrderStatus;
+
+// Toplu işlemlerin tek okuması: sipariş başına item satırları (item'sız siparişte item kolonları null);
+// entity yüklenmeden özet farkları ve event'ler için gereken kolonlar
+public interface OrderLineView {
+    Long getOrderId();
+    String getUserId();
+    OrderStatus getStatus();
+    Long getVersion();
+    Long getItemId();
+    String getProductId();
+    Integer getQuantity();
+}
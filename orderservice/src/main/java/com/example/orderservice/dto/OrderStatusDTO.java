@@ -0,0 +1,20 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.model.OrderStatus;
+
+public class OrderStatusDTO {
+
+    private final Long orderId;
+    private final OrderStatus status;
+    private final Long version;
+
+    public OrderStatusDTO(OrderStatusView view) {
+        this.orderId = view.getId();
+        this.status = view.getStatus();
+        this.version = view.getVersion();
+    }
+
+    public Long getOrderId() { return orderId; }
+    public OrderStatus getStatus() { return status; }
+    public Long getVersion() { return version; }
+}
@@ -0,0 +1,10 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.model.OrderStatus;
+
+// Sadece id, status ve version kolonlarını seçen Spring Data projection'ı
+public interface OrderStatusView {
+    Long getId();
+    OrderStatus getStatus();
+    Long getVersion();
+}
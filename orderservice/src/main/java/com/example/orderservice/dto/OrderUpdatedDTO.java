@@ -1,42 +1,41 @@
 package com.example.orderservice.dto;
 
-import com.example.orderservice.model.Order;
-import com.example.orderservice.model.OrderItem;
 import com.example.orderservice.model.OrderStatus;
 import java.util.List;
 
+// order.updated event'i: siparişin tamamı yerine sadece değişen item'ları taşır
 public class OrderUpdatedDTO {
 
     private Long orderId;
     private String userId;
     private OrderStatus status;
-    private Order order;
-    private List<OrderItem> existingItems;
-    private List<OrderItem> updatedItems;
+    private List<OrderItemDelta> added;
+    private List<OrderItemDelta> removed;
+    private List<OrderItemDelta> quantityChanged;
 
     private OrderUpdatedDTO(Builder builder) {
         this.orderId = builder.orderId;
         this.userId = builder.userId;
         this.status = builder.status;
-        this.order = builder.order;
-        this.existingItems = builder.existingItems;
-        this.updatedItems = builder.updatedItems;
+        this.added = builder.added;
+        this.removed = builder.removed;
+        this.quantityChanged = builder.quantityChanged;
     }
 
     public Long getOrderId() { return orderId; }
     public String getUserId() { return userId; }
     public OrderStatus getStatus() { return status; }
-    public Order getOrder() { return order; }
-    public List<OrderItem> getExistingItems() { return existingItems; }
-    public List<OrderItem> getUpdatedItems() { return updatedItems; }
+    public List<OrderItemDelta> getAdded() { return added; }
+    public List<OrderItemDelta> getRemoved() { return removed; }
+    public List<OrderItemDelta> getQuantityChanged() { return quantityChanged; }
 
     public static class Builder {
         private Long orderId;
         private String userId;
         private OrderStatus status;
-        private Order order;
-        private List<OrderItem> existingItems;
-        private List<OrderItem> updatedItems;
+        private List<OrderItemDelta> added = List.of();
+        private List<OrderItemDelta> removed = List.of();
+        private List<OrderItemDelta> quantityChanged = List.of();
 
         public Builder orderId(Long orderId) {
             this.orderId = orderId;
@@ -53,18 +52,18 @@ public class OrderUpdatedDTO {
             return this;
         }
 
-        public Builder order(Order order) {
-            this.order = order;
+        public Builder added(List<OrderItemDelta> added) {
+            this.added = added;
             return this;
         }
 
-        public Builder existingItems(List<OrderItem> existingItems) {
-            this.existingItems = existingItems;
+        public Builder removed(List<OrderItemDelta> removed) {
+            this.removed = removed;
             return this;
         }
 
-        public Builder updatedItems(List<OrderItem> updatedItems) {
-            this.updatedItems = updatedItems;
+        public Builder quantityChanged(List<OrderItemDelta> quantityChanged) {
+            this.quantityChanged = quantityChanged;
             return this;
         }
 
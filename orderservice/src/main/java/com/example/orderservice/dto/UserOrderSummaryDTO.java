@@ -0,0 +1,37 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.model.UserOrderSummary;
+
+import java.time.Instant;
+import java.util.EnumMap;
+import java.util.Map;
+
+// Dashboard'lar için kullanıcı özeti; her durum sıfır olsa da listelenir
+public class UserOrderSummaryDTO {
+
+    private final String userId;
+    private final long totalOrders;
+    private final Map<OrderStatus, Long> ordersByStatus = new EnumMap<>(OrderStatus.class);
+    private final long itemCount;
+    private final long totalQuantity;
+    private final Instant updatedAt;
+
+    public UserOrderSummaryDTO(String userId, UserOrderSummary summary) {
+        this.userId = userId;
+        for (OrderStatus status : OrderStatus.values()) {
+            ordersByStatus.put(status, summary == null ? 0 : summary.getOrders(status));
+        }
+        this.totalOrders = summary == null ? 0 : summary.getTotalOrders();
+        this.itemCount = summary == null ? 0 : summary.getItemCount();
+        this.totalQuantity = summary == null ? 0 : summary.getTotalQuantity();
+        this.updatedAt = summary == null ? null : summary.getUpdatedAt();
+    }
+
+    public String getUserId() { return userId; }
+    public long getTotalOrders() { return totalOrders; }
+    public Map<OrderStatus, Long> getOrdersByStatus() { return ordersByStatus; }
+    public long getItemCount() { return itemCount; }
+    public long getTotalQuantity() { return totalQuantity; }
+    public Instant getUpdatedAt() { return updatedAt; }
+}
@@ -0,0 +1,11 @@
+package com.example.orderservice.dto;
+
+import com.example.orderservice.model.OrderStatus;
+
+// Özet rebuild'i için kullanıcının siparişlerinden durum başına hesaplanan toplamlar
+public interface UserOrderTotalsView {
+    OrderStatus getStatus();
+    long getOrders();
+    long getItems();
+    long getQuantity();
+}
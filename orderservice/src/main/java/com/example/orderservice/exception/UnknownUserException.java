@@ -0,0 +1,8 @@
+package com.example.orderservice.exception;
+
+public class UnknownUserException extends RuntimeException {
+
+    public UnknownUserException(String userId) {
+        super("Unknown or deleted user: " + userId);
+    }
+}
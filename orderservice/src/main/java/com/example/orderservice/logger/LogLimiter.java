@@ -0,0 +1,66 @@
+package com.example.orderservice.logger;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Sık tekrarlanan log satırları için sınırlayıcı; her çağrı noktası kendi örneğini alanda tutar.
+ *
+ * {@link #perSecond(int)} saniyede en fazla N satıra izin verir, {@link #oneIn(int)} her N
+ * çağrıdan birini geçirir. Atlanan satır sayısı bir sonraki izin verilen satıra eklenebilir:
+ * <pre>
+ * if (retryLog.tryAcquire()) logger.warn("Retrying {} ({} similar suppressed)", key, retryLog.drainSuppressed());
+ * </pre>
+ * Kilitsizdir ve izin verilmeyen çağrılarda nesne oluşturmaz.
+ */
+public final class LogLimiter {
+
+    private static final long WINDOW_NANOS = 1_000_000_000L;
+
+    private final int permits;
+    private final boolean sampled;
+    private final AtomicLong counter = new AtomicLong();
+    private final AtomicLong windowStart = new AtomicLong(System.nanoTime());
+    private final AtomicLong suppressed = new AtomicLong();
+
+    private LogLimiter(int permits, boolean sampled) {
+        if (permits < 1) {
+            throw new IllegalArgumentException("permits must be positive: " + permits);
+        }
+        this.permits = permits;
+        this.sampled = sampled;
+    }
+
+    public static LogLimiter perSecond(int maxPerSecond) {
+        return new LogLimiter(maxPerSecond, false);
+    }
+
+    public static LogLimiter oneIn(int sampleRate) {
+        return new LogLimiter(sampleRate, true);
+    }
+
+    public boolean tryAcquire() {
+        boolean allowed = sampled ? sampleAcquire() : windowAcquire();
+        if (!allowed) {
+            suppressed.incrementAndGet();
+        }
+        return allowed;
+    }
+
+    // Son izin verilen satırdan beri atlanan satır sayısı
+    public long drainSuppressed() {
+        return suppressed.getAndSet(0);
+    }
+
+    private boolean sampleAcquire() {
+        return counter.getAndIncrement() % permits == 0;
+    }
+
+    private boolean windowAcquire() {
+        long now = System.nanoTime();
+        long start = windowStart.get();
+        if (now - start >= WINDOW_NANOS && windowStart.compareAndSet(start, now)) {
+            counter.set(0);
+        }
+        return counter.incrementAndGet() <= permits;
+    }
+}
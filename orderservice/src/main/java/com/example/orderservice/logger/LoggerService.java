@@ -2,24 +2,51 @@ package com.example.orderservice.logger;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.slf4j.spi.LoggingEventBuilder;
 import org.springframework.stereotype.Component;
 
+/**
+ * Uygulamanın log facade'ı.
+ *
+ * Mesajlar SLF4J'nin {@code {}} yer tutucuları ile parametre alır; seviye kapalıysa mesaj hiç
+ * formatlanmaz, bu yüzden çağıranlar string'i {@code +} ile birleştirmemeli. Sık çağrılan
+ * 0-2 parametreli overload'lar varargs dizisi oluşturmaz.
+ *
+ * Yapısal alanlar ve pahalı argümanlar için fluent API kullanılır; seviye kapalıysa
+ * paylaşılan boş bir builder döner ve supplier'lar çağrılmaz:
+ * <pre>
+ * logger.atInfo().addKeyValue("orderId", id).addArgument(() -> order.getItems().size()).log("Order created with {} items");
+ * </pre>
+ * Çok sık tekrarlanabilecek uyarılar {@link LogLimiter} ile sınırlanır.
+ */
 @Component
 public class LoggerService {
     private final Logger logger = LoggerFactory.getLogger(LoggerService.class);
 
-    public void info(String message, Object... args){
-        logger.info(message);
-    }
-
-    public void debug(String message, Object... args){
-        logger.debug(message);
-    }
-
-    public void warn(String message, Object... args){
-        logger.warn(message);
-    }
-    public void error(String message, Object... args){
-        logger.error(message);
-    }
-}
\ No newline at end of file
+    public void info(String message) { logger.info(message); }
+    public void info(String message, Object arg) { logger.info(message, arg); }
+    public void info(String message, Object arg1, Object arg2) { logger.info(message, arg1, arg2); }
+    public void info(String message, Object... args) { logger.info(message, args); }
+
+    public void debug(String message) { logger.debug(message); }
+    public void debug(String message, Object arg) { logger.debug(message, arg); }
+    public void debug(String message, Object arg1, Object arg2) { logger.debug(message, arg1, arg2); }
+    public void debug(String message, Object... args) { logger.debug(message, args); }
+
+    public void warn(String message) { logger.warn(message); }
+    public void warn(String message, Object arg) { logger.warn(message, arg); }
+    public void warn(String message, Object arg1, Object arg2) { logger.warn(message, arg1, arg2); }
+    public void warn(String message, Object... args) { logger.warn(message, args); }
+
+    public void error(String message) { logger.error(message); }
+    public void error(String message, Object arg) { logger.error(message, arg); }
+    public void error(String message, Object arg1, Object arg2) { logger.error(message, arg1, arg2); }
+    public void error(String message, Object... args) { logger.error(message, args); }
+
+    public LoggingEventBuilder atInfo() { return logger.atInfo(); }
+    public LoggingEventBuilder atDebug() { return logger.atDebug(); }
+    public LoggingEventBuilder atWarn() { return logger.atWarn(); }
+    public LoggingEventBuilder atError() { return logger.atError(); }
+
+    public boolean isDebugEnabled() { return logger.isDebugEnabled(); }
+}
@@ -0,0 +1,226 @@
+package com.example.orderservice.messaging;
+
+import com.example.orderservice.configuration.RabbitConfig;
+import com.example.orderservice.logger.LogLimiter;
+import com.example.orderservice.logger.LoggerService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.amqp.core.ReturnedMessage;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.connection.PublisherCallbackChannel;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Publisher confirm'leri senkron beklemeden, pipeline halinde çalışan gönderim motoru.
+ *
+ * Aynı anda en fazla {@code window} kadar onaylanmamış mesaj yolda olabilir; pencere doluysa
+ * publish çağrısı yer açılana kadar bekler (backpressure). Confirm ve return'ler correlation id
+ * ile bekleyen mesaja eşlenir; nack alan veya kuyruğa yönlenemeyen mesajlar üstel backoff ile
+ * tekrar gönderilir. Mesaj, nihai sonucuna (ack ya da deneme sınırı) kadar pencere iznini tutar.
+ */
+@Component
+public class ConfirmedPublishEngine implements RabbitTemplate.ConfirmCallback, RabbitTemplate.ReturnsCallback {
+
+    @Autowired
+    private RabbitTemplate rabbitTemplate;
+
+    @Autowired
+    private LoggerService logger;
+
+    private final Semaphore window;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+    private final long acquireTimeoutMs;
+
+    // Broker sorunlarında her mesaj için log basılmasın
+    private final LogLimiter retryLog = LogLimiter.perSecond(10);
+    private final LogLimiter returnLog = LogLimiter.perSecond(10);
+
+    private final Map<String, PendingPublish> pending = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService retryScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "publish-retry");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final Counter published;
+    private final Counter acked;
+    private final Counter nacked;
+    private final Counter returned;
+    private final Counter retried;
+    private final Counter failed;
+    private final Timer confirmLatency;
+
+    public ConfirmedPublishEngine(MeterRegistry registry,
+                                  @Value("${publisher.confirm.window:256}") int windowSize,
+                                  @Value("${publisher.confirm.max-attempts:5}") int maxAttempts,
+                                  @Value("${publisher.confirm.initial-backoff-ms:100}") long initialBackoffMs,
+                                  @Value("${publisher.confirm.max-backoff-ms:5000}") long maxBackoffMs,
+                                  @Value("${publisher.confirm.acquire-timeout-ms:10000}") long acquireTimeoutMs) {
+        this.window = new Semaphore(windowSize);
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.acquireTimeoutMs = acquireTimeoutMs;
+
+        this.published = Counter.builder("publisher.messages").description("Messages handed to the broker, including retries").register(registry);
+        this.acked = Counter.builder("publisher.confirms").tag("result", "ack").register(registry);
+        this.nacked = Counter.builder("publisher.confirms").tag("result", "nack").register(registry);
+        this.returned = Counter.builder("publisher.confirms").tag("result", "returned").register(registry);
+        this.retried = Counter.builder("publisher.retries").description("Messages re-sent after a nack, return or send error").register(registry);
+        this.failed = Counter.builder("publisher.failures").description("Messages given up on after max attempts").register(registry);
+        this.confirmLatency = Timer.builder("publisher.confirm.latency").description("Time from send to broker ack").register(registry);
+        Gauge.builder("publisher.inflight", pending, Map::size).description("Unconfirmed messages in flight").register(registry);
+    }
+
+    @PostConstruct
+    void registerCallbacks() {
+        rabbitTemplate.setConfirmCallback(this);
+        rabbitTemplate.setReturnsCallback(this);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        retryScheduler.shutdownNow();
+    }
+
+    /**
+     * Mesajı gönderir ve broker ack verdiğinde tamamlanan bir future döner.
+     * Pencere {@code acquireTimeoutMs} boyunca dolu kalırsa future hata ile tamamlanır.
+     */
+    public CompletableFuture<Void> publish(String routingKey, Object payload) {
+        CompletableFuture<Void> result = new CompletableFuture<>();
+        try {
+            if (!window.tryAcquire(acquireTimeoutMs, TimeUnit.MILLISECONDS)) {
+                result.completeExceptionally(new IllegalStateException("Publish window full, " + routingKey + " not sent"));
+                return result;
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            result.completeExceptionally(e);
+            return result;
+        }
+        send(new PendingPublish(routingKey, payload, result));
+        return result;
+    }
+
+    private void send(PendingPublish publish) {
+        publish.attempt++;
+        publish.returned = false;
+        publish.sentAt = System.nanoTime();
+        CorrelationData correlationData = new CorrelationData(UUID.randomUUID().toString());
+        pending.put(correlationData.getId(), publish);
+        try {
+            rabbitTemplate.convertAndSend(RabbitConfig.EXCHANGE, publish.routingKey, publish.payload, correlationData);
+            published.increment();
+        } catch (Exception e) {
+            pending.remove(correlationData.getId());
+            retryOrFail(publish, "send failed: " + e.getMessage());
+        }
+    }
+
+    @Override
+    public void confirm(CorrelationData correlationData, boolean ack, String cause) {
+        if (correlationData == null || correlationData.getId() == null) {
+            return;
+        }
+        PendingPublish publish = pending.remove(correlationData.getId());
+        if (publish == null) {
+            return;
+        }
+        if (ack && !publish.returned) {
+            acked.increment();
+            confirmLatency.record(System.nanoTime() - publish.sentAt, TimeUnit.NANOSECONDS);
+            window.release();
+            publish.result.complete(null);
+        } else if (ack) {
+            retryOrFail(publish, "returned unroutable");
+        } else {
+            nacked.increment();
+            retryOrFail(publish, "nack: " + cause);
+        }
+    }
+
+    // Mandatory mesaj bir kuyruğa yönlenemezse return, aynı mesajın ack'inden önce gelir
+    @Override
+    public void returnedMessage(ReturnedMessage returnedMessage) {
+        Object correlationId = returnedMessage.getMessage().getMessageProperties()
+                .getHeader(PublisherCallbackChannel.RETURNED_MESSAGE_CORRELATION_KEY);
+        PendingPublish publish = correlationId == null ? null : pending.get(correlationId.toString());
+        if (publish != null) {
+            publish.returned = true;
+        }
+        returned.increment();
+        if (returnLog.tryAcquire()) {
+            logger.atWarn()
+                    .addKeyValue("routingKey", returnedMessage.getRoutingKey())
+                    .addKeyValue("suppressed", returnLog.drainSuppressed())
+                    .log("⚠️ Message not directed to queue: {}", returnedMessage.getReplyText());
+        }
+    }
+
+    private void retryOrFail(PendingPublish publish, String reason) {
+        if (publish.attempt >= maxAttempts) {
+            failed.increment();
+            window.release();
+            logger.error("❌ Giving up on {} after {} attempts, {}", publish.routingKey, publish.attempt, reason);
+            publish.result.completeExceptionally(new IllegalStateException(publish.routingKey + " not confirmed: " + reason));
+            return;
+        }
+        retried.increment();
+        long backoff = Math.min(maxBackoffMs, initialBackoffMs << Math.min(publish.attempt - 1, 20));
+        if (retryLog.tryAcquire()) {
+            logger.atWarn()
+                    .addKeyValue("routingKey", publish.routingKey)
+                    .addKeyValue("attempt", publish.attempt)
+                    .addKeyValue("suppressed", retryLog.drainSuppressed())
+                    .log("Retrying in {}ms, {}", backoff, reason);
+        }
+        try {
+            retryScheduler.schedule(() -> send(publish), backoff, TimeUnit.MILLISECONDS);
+        } catch (Exception e) {
+            window.release();
+            publish.result.completeExceptionally(e);
+        }
+    }
+
+    int inFlight() {
+        return pending.size();
+    }
+
+    int availablePermits() {
+        return window.availablePermits();
+    }
+
+    private static final class PendingPublish {
+        private final String routingKey;
+        private final Object payload;
+        private final CompletableFuture<Void> result;
+        private volatile int attempt;
+        private volatile boolean returned;
+        private volatile long sentAt;
+
+        private PendingPublish(String routingKey, Object payload, CompletableFuture<Void> result) {
+            this.routingKey = routingKey;
+            this.payload = payload;
+            this.result = result;
+        }
+    }
+}
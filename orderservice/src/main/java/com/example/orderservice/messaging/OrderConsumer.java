@@ -1,14 +1,122 @@
 package com.example.orderservice.messaging;
 
+import com.example.orderservice.configuration.RabbitConfig;
+import com.example.orderservice.logger.LoggerService;
+import com.example.orderservice.messaging.event.InventoryReply;
+import com.example.orderservice.messaging.event.UserEvent;
+import com.example.orderservice.service.OrderSaga;
+import com.example.orderservice.service.UserDirectory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.amqp.core.Message;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
-import java.util.Map;
 
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Predicate;
+import java.util.function.Supplier;
+
+/**
+ * Diğer servislerden gelen event'leri batch halinde alır: userservice event'leri yerel kullanıcı
+ * projeksiyonuna, productservice'in stok cevapları sipariş saga'sına gider.
+ *
+ * Batch boyutu, prefetch ve consumer sayısı RabbitConfig'teki listener factory'lerde ayarlanır.
+ * Çözümlenemeyen mesajlar log'lanıp atlanır; batch'in geri kalanını bloklamaz.
+ * Batch işleme süresi ve mesaj sayıları kuyruk başına orders.consumer metriklerine yazılır.
+ */
 @Component
 public class OrderConsumer {
 
-    @RabbitListener(queues = "user.registered")
-    public void handleOrderCreated(Map<String, Object> userData) {
-        System.out.println("📥 Received user from user.registered topic: " + userData);
+    @Autowired
+    private UserDirectory userDirectory;
+
+    @Autowired
+    private OrderSaga orderSaga;
+
+    @Autowired
+    private LoggerService logger;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private final ListenerMetrics userRegisteredMetrics;
+    private final ListenerMetrics userDeletedMetrics;
+    private final ListenerMetrics inventoryReplyMetrics;
+    private final Counter malformedMessages;
+
+    public OrderConsumer(MeterRegistry registry) {
+        this.userRegisteredMetrics = new ListenerMetrics(registry, "user.registered");
+        this.userDeletedMetrics = new ListenerMetrics(registry, "user.deleted");
+        this.inventoryReplyMetrics = new ListenerMetrics(registry, RabbitConfig.INVENTORY_REPLY_QUEUE);
+        this.malformedMessages = Counter.builder("orders.consumer.malformed")
+                .description("Consumed messages skipped because they could not be decoded")
+                .register(registry);
+    }
+
+    @RabbitListener(queues = "user.registered", containerFactory = "userEventListenerFactory")
+    public void handleUserRegistered(List<Message> messages) {
+        userRegisteredMetrics.record(messages, () ->
+                userDirectory.applyRegistered(decode(messages, UserEvent.class, event -> event.userId() != null)));
+        logger.debug("📥 Applied {} user.registered events", messages.size());
+    }
+
+    @RabbitListener(queues = "user.deleted", containerFactory = "userEventListenerFactory")
+    public void handleUserDeleted(List<Message> messages) {
+        userDeletedMetrics.record(messages, () ->
+                userDirectory.applyDeleted(decode(messages, UserEvent.class, event -> event.userId() != null)));
+        logger.debug("📥 Applied {} user.deleted events", messages.size());
+    }
+
+    @RabbitListener(queues = RabbitConfig.INVENTORY_REPLY_QUEUE, containerFactory = "inventoryReplyListenerFactory")
+    public void handleInventoryReplies(List<Message> messages) {
+        int applied = inventoryReplyMetrics.record(messages, () -> orderSaga.apply(decode(messages, InventoryReply.class,
+                reply -> reply.orderId() != null && reply.type() != null)));
+        logger.debug("📥 Applied {}/{} inventory replies", applied, messages.size());
+    }
+
+    private <T> List<T> decode(List<Message> messages, Class<T> type, Predicate<T> valid) {
+        List<T> events = new ArrayList<>(messages.size());
+        for (Message message : messages) {
+            try {
+                T event = mapper.readValue(message.getBody(), type);
+                if (valid.test(event)) {
+                    events.add(event);
+                }
+            } catch (IOException e) {
+                malformedMessages.increment();
+                logger.warn("Skipping malformed {}: {}", type.getSimpleName(), e.getMessage());
+            }
+        }
+        return events;
+    }
+
+    private static final class ListenerMetrics {
+        private final Timer batchTimer;
+        private final Counter messages;
+
+        private ListenerMetrics(MeterRegistry registry, String queue) {
+            this.batchTimer = Timer.builder("orders.consumer.batch")
+                    .description("Time to decode and apply one listener batch")
+                    .tag("queue", queue)
+                    .register(registry);
+            this.messages = Counter.builder("orders.consumer.messages")
+                    .description("Messages received by the listener")
+                    .tag("queue", queue)
+                    .register(registry);
+        }
+
+        private void record(List<Message> batch, Runnable handler) {
+            messages.increment(batch.size());
+            batchTimer.record(handler);
+        }
+
+        private <T> T record(List<Message> batch, Supplier<T> handler) {
+            messages.increment(batch.size());
+            return batchTimer.record(handler);
+        }
     }
 }
@@ -0,0 +1,117 @@
+package com.example.orderservice.messaging;
+
+import com.example.orderservice.model.OutboxEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Opsiyonel mesaj batch'leme: outbox'tan okunan event'leri routing key'e göre gruplayıp
+ * her grubu {@code maxMessages} event veya {@code maxBytes} boyutunu geçmeyen parçalara böler.
+ * Her parça OrderEventCodec#toBatchMessage ile tek bir AMQP mesajı olarak gönderilir.
+ *
+ * Bir routing key içindeki sıra korunur. Relay, en eski event {@code lingerMs} kadar
+ * beklemediyse ve batch dolmadıysa turu atlar; böylece düşük trafikte de mesajlar birikir.
+ */
+@Component
+public class OrderEventBatcher {
+
+    private final boolean enabled;
+    private final int maxMessages;
+    private final int maxBytes;
+    private final Duration linger;
+
+    private final Counter batchMessages;
+    private final Counter batchedEvents;
+    private final DistributionSummary eventsPerMessage;
+    private final DistributionSummary bytesPerMessage;
+
+    public OrderEventBatcher(MeterRegistry registry,
+                             @Value("${publisher.batching.enabled:false}") boolean enabled,
+                             @Value("${publisher.batching.max-messages:50}") int maxMessages,
+                             @Value("${publisher.batching.max-bytes:65536}") int maxBytes,
+                             @Value("${publisher.batching.linger-ms:100}") long lingerMs) {
+        this.enabled = enabled;
+        this.maxMessages = maxMessages;
+        this.maxBytes = maxBytes;
+        this.linger = Duration.ofMillis(lingerMs);
+
+        this.batchMessages = Counter.builder("publisher.batch.messages")
+                .description("AMQP messages sent in batching mode")
+                .register(registry);
+        this.batchedEvents = Counter.builder("publisher.batch.events")
+                .description("Order events packed into batch messages")
+                .register(registry);
+        this.eventsPerMessage = DistributionSummary.builder("publisher.batch.fill")
+                .description("Order events per AMQP message; mean is the batching efficiency")
+                .register(registry);
+        this.bytesPerMessage = DistributionSummary.builder("publisher.batch.bytes")
+                .description("Body size of batch messages")
+                .baseUnit("bytes")
+                .register(registry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * Batch dolmadıysa ve en eski event henüz linger süresini doldurmadıysa true döner.
+     */
+    public boolean shouldHold(List<OutboxEvent> batch, Instant now) {
+        if (!enabled || batch.isEmpty() || batch.size() >= maxMessages) {
+            return false;
+        }
+        return batch.get(0).getCreatedAt().plus(linger).isAfter(now);
+    }
+
+    public List<List<OutboxEvent>> group(List<OutboxEvent> events) {
+        List<List<OutboxEvent>> chunks = new ArrayList<>();
+        Map<String, List<OutboxEvent>> open = new LinkedHashMap<>();
+        Map<String, Integer> openBytes = new LinkedHashMap<>();
+        for (OutboxEvent event : events) {
+            String key = event.getRoutingKey() + '|' + event.getContentType() + '|' + event.getSchemaVersion();
+            if (event.isPacked()) {
+                // Zaten paketlenmiş kayıt tek başına gider; sıra bozulmasın diye açık parça önce kapanır
+                List<OutboxEvent> previous = open.remove(key);
+                if (previous != null) {
+                    chunks.add(previous);
+                    openBytes.remove(key);
+                }
+                chunks.add(List.of(event));
+                continue;
+            }
+            int eventBytes = Integer.BYTES + event.getBody().length;
+            List<OutboxEvent> chunk = open.get(key);
+            if (chunk != null && (chunk.size() >= maxMessages || openBytes.get(key) + eventBytes > maxBytes)) {
+                chunks.add(chunk);
+                chunk = null;
+            }
+            if (chunk == null) {
+                chunk = new ArrayList<>();
+                open.put(key, chunk);
+                openBytes.put(key, 0);
+            }
+            chunk.add(event);
+            openBytes.merge(key, eventBytes, Integer::sum);
+        }
+        chunks.addAll(open.values());
+        return chunks;
+    }
+
+    void recordSent(int events, int bytes) {
+        batchMessages.increment();
+        batchedEvents.increment(events);
+        eventsPerMessage.record(events);
+        bytesPerMessage.record(bytes);
+    }
+}
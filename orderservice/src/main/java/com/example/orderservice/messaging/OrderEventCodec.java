@@ -0,0 +1,168 @@
+package com.example.orderservice.messaging;
+
+import com.example.orderservice.model.OutboxEvent;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageBuilder;
+import org.springframework.amqp.core.MessageBuilderSupport;
+import org.springframework.amqp.core.MessageDeliveryMode;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.support.AmqpHeaders;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Order event'lerinin broker'a giden byte formatı.
+ *
+ * Event'ler outbox'a bir kez encode edilmiş byte olarak yazılır ve broker'a
+ * MessageConverter'dan geçmeden, content-type ve şema versiyonu header'ları ile gönderilir.
+ * JSON ({@value #JSON}) ve daha küçük CBOR ({@value #CBOR}) desteklenir; hangisinin
+ * üretileceğini order.events.content-type belirler. Mapper'lar thread-safe'tir ve bir kez oluşturulur.
+ * Encode/decode süreleri ve encode edilen boyut format başına events.codec metriklerine yazılır.
+ */
+@Component
+public class OrderEventCodec {
+
+    public static final String JSON = "application/json";
+    public static final String CBOR = "application/cbor";
+
+    public static final String VERSION_HEADER = "x-event-version";
+    public static final String TYPE_HEADER = "x-event-type";
+
+    // Event alanları geriye uyumsuz değiştiğinde artırılır
+    public static final int SCHEMA_VERSION = 1;
+
+    private final Format json;
+    private final Format cbor;
+
+    private final String contentType;
+
+    public OrderEventCodec(MeterRegistry registry,
+                           @Value("${order.events.content-type:" + JSON + "}") String contentType) {
+        this.json = new Format(new ObjectMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES), JSON, registry);
+        this.cbor = new Format(new CBORMapper().disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES), CBOR, registry);
+        formatFor(contentType);
+        this.contentType = contentType;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public byte[] encode(Object event) {
+        return encode(event, contentType);
+    }
+
+    public byte[] encode(Object event, String contentType) {
+        Format format = formatFor(contentType);
+        long start = System.nanoTime();
+        try {
+            byte[] body = format.mapper.writeValueAsBytes(event);
+            format.encodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            format.encodedBytes.record(body.length);
+            return body;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to encode " + event.getClass().getSimpleName() + " as " + contentType, e);
+        }
+    }
+
+    public <T> T decode(byte[] body, String contentType, Class<T> type) {
+        Format format = formatFor(contentType);
+        long start = System.nanoTime();
+        try {
+            T event = format.mapper.readValue(body, type);
+            format.decodeTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return event;
+        } catch (IOException e) {
+            throw new IllegalArgumentException("Failed to decode " + type.getSimpleName() + " from " + contentType, e);
+        }
+    }
+
+    public Message toMessage(OutboxEvent event) {
+        MessageBuilderSupport<Message> builder = MessageBuilder.withBody(event.getBody())
+                .setContentType(event.getContentType())
+                .setHeader(VERSION_HEADER, event.getSchemaVersion())
+                .setHeader(TYPE_HEADER, event.getRoutingKey())
+                .setMessageId(String.valueOf(event.getId()))
+                .setDeliveryMode(MessageDeliveryMode.PERSISTENT);
+        // Toplu işlemin outbox'a paketlenmiş yazılan event'leri batch mesajı olarak gider
+        if (event.isPacked()) {
+            builder.setHeader(MessageProperties.SPRING_BATCH_FORMAT, MessageProperties.BATCH_FORMAT_LENGTH_HEADER4)
+                    .setHeader(AmqpHeaders.BATCH_SIZE, event.getEventCount());
+        }
+        return builder.build();
+    }
+
+    /**
+     * Aynı routing key, content-type ve şema versiyonundaki event'leri tek mesajda paketler.
+     * Format Spring AMQP'nin SimpleBatchingStrategy formatıdır (her event için 4 byte uzunluk + body),
+     * Spring listener container'ları bu mesajları otomatik olarak tek tek event'lere ayırır.
+     * Paketlenmiş outbox kayıtları OrderEventBatcher tarafından hep tek başına gruplanır.
+     */
+    public Message toBatchMessage(List<OutboxEvent> events) {
+        if (events.size() == 1) {
+            return toMessage(events.get(0));
+        }
+        List<byte[]> bodies = new ArrayList<>(events.size());
+        for (OutboxEvent event : events) {
+            bodies.add(event.getBody());
+        }
+        OutboxEvent first = events.get(0);
+        return MessageBuilder.withBody(pack(bodies))
+                .setContentType(first.getContentType())
+                .setHeader(VERSION_HEADER, first.getSchemaVersion())
+                .setHeader(TYPE_HEADER, first.getRoutingKey())
+                .setHeader(MessageProperties.SPRING_BATCH_FORMAT, MessageProperties.BATCH_FORMAT_LENGTH_HEADER4)
+                .setHeader(AmqpHeaders.BATCH_SIZE, events.size())
+                .setDeliveryMode(MessageDeliveryMode.PERSISTENT)
+                .build();
+    }
+
+    // Encode edilmiş event'leri batch mesajı gövdesi olarak birleştirir (her biri için 4 byte uzunluk + body)
+    public static byte[] pack(List<byte[]> bodies) {
+        int size = 0;
+        for (byte[] body : bodies) {
+            size += Integer.BYTES + body.length;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(size);
+        for (byte[] body : bodies) {
+            buffer.putInt(body.length);
+            buffer.put(body);
+        }
+        return buffer.array();
+    }
+
+    private Format formatFor(String contentType) {
+        if (JSON.equals(contentType)) return json;
+        if (CBOR.equals(contentType)) return cbor;
+        throw new IllegalArgumentException("Unsupported event content type: " + contentType);
+    }
+
+    private static final class Format {
+        private final ObjectMapper mapper;
+        private final Timer encodeTimer;
+        private final Timer decodeTimer;
+        private final DistributionSummary encodedBytes;
+
+        private Format(ObjectMapper mapper, String contentType, MeterRegistry registry) {
+            this.mapper = mapper;
+            this.encodeTimer = Timer.builder("events.codec").tag("operation", "encode").tag("content.type", contentType)
+                    .description("Time to serialize or deserialize one order event").register(registry);
+            this.decodeTimer = Timer.builder("events.codec").tag("operation", "decode").tag("content.type", contentType)
+                    .description("Time to serialize or deserialize one order event").register(registry);
+            this.encodedBytes = DistributionSummary.builder("events.codec.bytes").tag("content.type", contentType)
+                    .description("Encoded order event size").baseUnit("bytes").register(registry);
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.orderservice.messaging;
+
+import com.example.orderservice.configuration.RabbitQueue;
+import com.example.orderservice.diagnostics.EventSerializationEvent;
+import com.example.orderservice.model.OutboxEvent;
+import com.example.orderservice.repository.OutboxEventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Order event'lerini broker yerine outbox tablosuna yazar.
+ *
+ * Çağıran transaction zorunludur: event ancak siparişin kendisi commit olursa kalıcı olur,
+ * broker'a gönderimi OutboxRelay arka planda yapar.
+ */
+@Component
+public class OrderEventOutbox {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OrderEventCodec eventCodec;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueue(RabbitQueue queue, Long orderId, Object event) {
+        outboxEventRepository.save(toOutboxEvent(queue, orderId, event));
+    }
+
+    /**
+     * Toplu işlemler için: event'ler tek outbox kaydına lengthHeader4 formatında paketlenir
+     * ve broker'a tek batch mesajı olarak gider. Consumer'lar mesajı sipariş başına event'lere ayırır.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueuePacked(RabbitQueue queue, Long aggregateId, List<?> events) {
+        if (events.isEmpty()) {
+            return;
+        }
+        if (events.size() == 1) {
+            enqueue(queue, aggregateId, events.get(0));
+            return;
+        }
+        EventSerializationEvent serializationEvent = new EventSerializationEvent();
+        serializationEvent.begin();
+        List<byte[]> bodies = new ArrayList<>(events.size());
+        for (Object event : events) {
+            bodies.add(eventCodec.encode(event));
+        }
+        byte[] body = OrderEventCodec.pack(bodies);
+        serializationEvent.commit(aggregateId, queue.getRoutingKey(), body.length);
+        outboxEventRepository.save(new OutboxEvent(aggregateId, queue.getRoutingKey(), body,
+                eventCodec.getContentType(), OrderEventCodec.SCHEMA_VERSION, events.size()));
+    }
+
+    private OutboxEvent toOutboxEvent(RabbitQueue queue, Long orderId, Object event) {
+        EventSerializationEvent serializationEvent = new EventSerializationEvent();
+        serializationEvent.begin();
+        byte[] body = eventCodec.encode(event);
+        serializationEvent.commit(orderId, queue.getRoutingKey(), body.length);
+        return new OutboxEvent(orderId, queue.getRoutingKey(), body, eventCodec.getContentType(), OrderEventCodec.SCHEMA_VERSION);
+    }
+}
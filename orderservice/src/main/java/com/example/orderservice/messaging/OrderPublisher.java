@@ -1,75 +1,74 @@
 package com.example.orderservice.messaging;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import org.springframework.amqp.core.AmqpTemplate;
+import org.springframework.amqp.core.Message;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import com.example.orderservice.diagnostics.OrderPublishEvent;
 import com.example.orderservice.logger.LoggerService;
-import com.example.orderservice.configuration.RabbitConfig;
-import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OutboxEvent;
 import org.springframework.stereotype.Service;
 
-import java.nio.charset.StandardCharsets;
-import java.util.Map;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 
 @Service
 public class OrderPublisher {
 
     @Autowired
-    private AmqpTemplate rabbitTemplate;
+    private ConfirmedPublishEngine publishEngine;
 
     @Autowired
-    private LoggerService logger;
+    private OrderEventCodec eventCodec;
 
-    public void publishOrderCreated(String orderData) {
-        try {
-            rabbitTemplate.convertAndSend("amq.topic", "order.created", orderData);
+    @Autowired
+    private OrderEventBatcher eventBatcher;
 
-            System.out.println("✅ Sent order.created event: " + orderData);
-        } catch (Exception e) {
-            logger.error("Failed to sent order.craeted event: ", e);
-        }
-    }
+    @Autowired
+    private LoggerService logger;
 
-    public void publishOrderUpdated(String orderData){
-        try {
-            rabbitTemplate.convertAndSend("amq.topic", "order.updated", orderData);
-            logger.info("✅ Sent order.updated event: " + orderData);
-        }
-        catch (Exception e) {
-            logger.error("Failed to sent order.updated event: ", e);
-        }
-    }
+    @Value("${publisher.confirm.batch-timeout-ms:30000}")
+    private long batchTimeoutMs;
 
-    public void publishOrderItemAdded(String orderItem){
-        try {
-            rabbitTemplate.convertAndSend("amq.topic", "orderItem.added", orderItem);
-            logger.info("✅ Sent orderItem.added event: " + orderItem);
-        }
-        catch (Exception e) {
-            logger.error("Failed to send orderItem.added event: ", e);
-        }
-    }
+    /**
+     * Outbox'tan okunan bir batch'in tamamını pipeline halinde gönderir ve broker'ın
+     * onayladığı event'leri döner. Süre içinde onaylanmayanlar outbox'ta kalır ve tekrar denenir.
+     */
+    public List<OutboxEvent> publishBatch(List<OutboxEvent> events) {
+        List<List<OutboxEvent>> chunks = eventBatcher.isEnabled()
+                ? eventBatcher.group(events)
+                : events.stream().map(List::of).toList();
 
-    public void publishOrderCanceled(String orderData) {
-        try{
-            rabbitTemplate.convertAndSend("amq.topic", "order.canceled", orderData);
-            logger.info("✅ Sent order.updated event: " + orderData);
+        List<CompletableFuture<Void>> confirms = new ArrayList<>(chunks.size());
+        for (List<OutboxEvent> chunk : chunks) {
+            OrderPublishEvent publishEvent = new OrderPublishEvent();
+            publishEvent.begin();
+            Message message = eventBatcher.isEnabled() ? eventCodec.toBatchMessage(chunk) : eventCodec.toMessage(chunk.get(0));
+            confirms.add(publishEngine.publish(chunk.get(0).getRoutingKey(), message));
+            publishEvent.commit(chunk.get(0).getAggregateId(), chunk.get(0).getRoutingKey(), chunk.size(), message.getBody().length);
+            if (eventBatcher.isEnabled()) {
+                eventBatcher.recordSent(chunk.stream().mapToInt(OutboxEvent::getEventCount).sum(), message.getBody().length);
+            }
         }
-        catch (Exception e) {
-            logger.error("Failed to sent order.canceled event: ", e);
-        }
-    }
 
-    public void publishOrderDeleted(String orderData){
-        try {
-            rabbitTemplate.convertAndSend("amq.topic", "order.deleted", orderData);
-            logger.info("✅ Sent order.deleted event: " + orderData);
-        }
-        catch (Exception e){
-            logger.error("Failed to sent order.deleted event: ", e);
+        // Bir batch mesajındaki event'ler birlikte onaylanır ya da birlikte outbox'ta kalır
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(batchTimeoutMs);
+        List<OutboxEvent> confirmed = new ArrayList<>(events.size());
+        for (int i = 0; i < chunks.size(); i++) {
+            try {
+                confirms.get(i).get(Math.max(0, deadline - System.nanoTime()), TimeUnit.NANOSECONDS);
+                confirmed.addAll(chunks.get(i));
+            } catch (ExecutionException | TimeoutException e) {
+                logger.warn("Order events from {} ({}) not confirmed: {}", chunks.get(i).get(0).getId(), chunks.get(i).size(), e.getMessage());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
         }
+        logger.debug("✅ Confirmed {}/{} order events", confirmed.size(), events.size());
+        return confirmed;
     }
-
-
-
 }
@@ -0,0 +1,110 @@
+package com.example.orderservice.messaging;
+
+import com.example.orderservice.logger.LoggerService;
+import com.example.orderservice.model.OutboxEvent;
+import com.example.orderservice.repository.OutboxEventRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * Outbox tablosunu arka planda batch'ler halinde boşaltır.
+ *
+ * Her batch kendi transaction'ında kilitlenir, gönderilir ve yalnızca broker'ın onayladığı
+ * event'ler silinir; onaylanmayanlar bir sonraki turda tekrar denenir (at-least-once).
+ */
+@Component
+public class OutboxRelay {
+
+    @Autowired
+    private OutboxEventRepository outboxEventRepository;
+
+    @Autowired
+    private OrderPublisher orderPublisher;
+
+    @Autowired
+    private OrderEventBatcher eventBatcher;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private LoggerService logger;
+
+    @Value("${outbox.relay.batch-size:100}")
+    private int batchSize;
+
+    private final Counter relayedEvents;
+    private final Counter failedBatches;
+    private final DistributionSummary batchSizes;
+    private final Timer batchTimer;
+    private final Timer lagTimer;
+
+    public OutboxRelay(MeterRegistry registry) {
+        this.relayedEvents = Counter.builder("outbox.relay.events")
+                .description("Order events relayed from the outbox to the broker")
+                .register(registry);
+        this.failedBatches = Counter.builder("outbox.relay.failures")
+                .description("Outbox batches that were not fully confirmed by the broker")
+                .register(registry);
+        this.batchSizes = DistributionSummary.builder("outbox.relay.batch.size")
+                .description("Number of events drained per relay batch")
+                .register(registry);
+        this.batchTimer = Timer.builder("outbox.relay.batch")
+                .description("Time to lock, publish and delete one outbox batch")
+                .register(registry);
+        this.lagTimer = Timer.builder("outbox.relay.lag")
+                .description("Delay between an event being written to the outbox and being published")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval-ms:200}")
+    public void drain() {
+        int relayed;
+        do {
+            relayed = relayBatch();
+        } while (relayed == batchSize);
+    }
+
+    int relayBatch() {
+        try {
+            Integer relayed = batchTimer.record(() -> transactionTemplate.execute(status -> {
+                List<OutboxEvent> batch = outboxEventRepository.findAllByOrderByIdAsc(Limit.of(batchSize));
+                if (batch.isEmpty() || eventBatcher.shouldHold(batch, Instant.now())) {
+                    return 0;
+                }
+                List<OutboxEvent> confirmed = orderPublisher.publishBatch(batch);
+                if (confirmed.size() < batch.size()) {
+                    failedBatches.increment();
+                }
+                outboxEventRepository.deleteAllInBatch(confirmed);
+
+                Instant now = Instant.now();
+                for (OutboxEvent event : confirmed) {
+                    lagTimer.record(Duration.between(event.getCreatedAt(), now));
+                }
+                return confirmed.size();
+            }));
+            if (relayed != null && relayed > 0) {
+                relayedEvents.increment(relayed);
+                batchSizes.record(relayed);
+            }
+            return relayed == null ? 0 : relayed;
+        } catch (Exception e) {
+            failedBatches.increment();
+            logger.warn("Outbox relay batch failed, will retry: {}", e.getMessage());
+            return 0;
+        }
+    }
+}
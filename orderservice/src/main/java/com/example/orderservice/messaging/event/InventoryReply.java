@@ -0,0 +1,11 @@
+package com.example.orderservice.messaging.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+
+// productservice'in order.created sonrası gönderdiği stok cevabı: {"type", "orderId", "reason"}
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record InventoryReply(String type, Long orderId, String reason) {
+
+    public static final String STOCK_RESERVED = "StockReserved";
+    public static final String STOCK_INSUFFICIENT = "StockInsufficient";
+}
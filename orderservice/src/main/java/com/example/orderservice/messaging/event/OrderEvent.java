@@ -0,0 +1,28 @@
+package com.example.orderservice.messaging.event;
+
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+
+import java.util.List;
+
+// order.created / order.canceled / order.deleted event'i: entity yerine siparişin o anki kopyası
+public record OrderEvent(Long id, String userId, OrderStatus status, Long version, List<Item> items) {
+
+    public record Item(Long id, String productId, int quantity) {
+
+        static Item from(OrderItem item) {
+            return new Item(item.getId(), item.getProductId(), item.getQuantity());
+        }
+    }
+
+    // Stoğu rezerve olmayan siparişin silinmesi: productservice geri eklenecek item görmez
+    public OrderEvent withoutItems() {
+        return new OrderEvent(id, userId, status, version, List.of());
+    }
+
+    public static OrderEvent from(Order order) {
+        return new OrderEvent(order.getId(), order.getUserId(), order.getStatus(), order.getVersion(),
+                order.getItems().stream().map(Item::from).toList());
+    }
+}
@@ -0,0 +1,11 @@
+package com.example.orderservice.messaging.event;
+
+import com.example.orderservice.model.OrderItem;
+
+// orderItem.added event'i
+public record OrderItemAddedEvent(Long id, Long orderId, String productId, int quantity) {
+
+    public static OrderItemAddedEvent from(OrderItem item) {
+        return new OrderItemAddedEvent(item.getId(), item.getOrder().getId(), item.getProductId(), item.getQuantity());
+    }
+}
@@ -0,0 +1,9 @@
+package com.example.orderservice.messaging.event;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
+// userservice'in user.registered / user.deleted payload'ı: {"type", "user_id", "email"}
+@JsonIgnoreProperties(ignoreUnknown = true)
+public record UserEvent(String type, @JsonProperty("user_id") String userId, String email) {
+}
@@ -0,0 +1,74 @@
+package com.example.orderservice.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// OrderArchiver'ın "order" tablosundan taşıdığı terminal siparişler; id'ler orijinal siparişinkilerdir
+@Entity
+@Table(name = "order_archive", indexes = {
+        @Index(name = "idx_order_archive_user_id", columnList = "user_id")
+})
+public class ArchivedOrder {
+
+    @Id
+    private Long id;
+
+    private String userId;
+
+    @Enumerated(EnumType.STRING)
+    private OrderStatus status;
+
+    private Long version;
+
+    private Instant updatedAt;
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+
+    // Satırlar OrderArchiver'ın insert ... select sorgusu ile yazılır; ilişki sadece okuma ve silme içindir
+    @OneToMany(mappedBy = "order", cascade = CascadeType.REMOVE)
+    private List<ArchivedOrderItem> items = new ArrayList<>();
+
+    public ArchivedOrder() {}
+
+    // Okuma yolları arşivdeki siparişi de canlı siparişle aynı şekilde döner
+    public Order toOrder() {
+        Order order = new Order();
+        order.setId(id);
+        order.setUserId(userId);
+        order.setStatus(status);
+        order.setVersion(version);
+        order.setUpdatedAt(updatedAt);
+        for (ArchivedOrderItem archivedItem : items) {
+            OrderItem item = new OrderItem(archivedItem.getProductId(), archivedItem.getQuantity());
+            item.setId(archivedItem.getId());
+            order.addItem(item);
+        }
+        return order;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public OrderStatus getStatus() { return status; }
+    public void setStatus(OrderStatus status) { this.status = status; }
+
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+
+    public Instant getArchivedAt() { return archivedAt; }
+    public void setArchivedAt(Instant archivedAt) { this.archivedAt = archivedAt; }
+
+    public List<ArchivedOrderItem> getItems() { return items; }
+    public void setItems(List<ArchivedOrderItem> items) { this.items = items; }
+}
@@ -1,16 +1,33 @@
 package com.example.orderservice.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
 
+// "Order.items" graph'ı, item'ları sipariş ile aynı sorguda getirmek isteyen repository metodları için
 @Entity
-@Table(name = "\"order\"")
+@Table(name = "\"order\"", indexes = {
+        @Index(name = "idx_order_user_id", columnList = "user_id"),
+        // status filtreli keyset sayfalama: where status = ? and id > ? order by id
+        @Index(name = "idx_order_status_id", columnList = "status, id"),
+        // arşivleme: where status in (...) and updated_at < ?
+        @Index(name = "idx_order_status_updated_at", columnList = "status, updated_at")
+})
+@NamedEntityGraph(name = Order.WITH_ITEMS, attributeNodes = @NamedAttributeNode("items"))
 public class Order {
 
+    public static final String WITH_ITEMS = "Order.items";
+
+    // IDENTITY insert batch'lemeyi engeller; pooled sequence ile id'ler 50'şer blok halinde alınır
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_seq")
+    @SequenceGenerator(name = "order_seq", sequenceName = "order_seq", allocationSize = 50)
     private Long id;
 
     private String userId;
@@ -18,6 +35,18 @@ public class Order {
     @Enumerated(EnumType.STRING)
     private OrderStatus status;
 
+    // Her güncellemede artar; status endpoint'inin ETag'i bu değerden üretilir
+    @Version
+    @ColumnDefault("0")
+    private Long version;
+
+    // Son değişiklik zamanı; arşivleme yaşı buradan hesaplanır. Kolon eklenirken mevcut satırlar o anki zamanı alır.
+    // API cevabının parçası değil
+    @UpdateTimestamp
+    @JsonIgnore
+    @ColumnDefault("CURRENT_TIMESTAMP")
+    private Instant updatedAt;
+
     // Order ile OrderItem arasındaki ilişkiyi tanımlıyoruz
     // mappedBy -> OrderItem içindeki 'order' alanı ile ilişkilendir
     // cascade -> Order silinirse veya kaydedilirse, item'lar da otomatik işlemlere dahil
@@ -38,6 +67,12 @@ public class Order {
     public OrderStatus getStatus() { return status; }
     public void setStatus(OrderStatus status) { this.status = status; }
 
+    public Long getVersion() { return version; }
+    public void setVersion(Long version) { this.version = version; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+
     public List<OrderItem> getItems() { return items; }
     public void setItems(List<OrderItem> items) { this.items = items; }
 
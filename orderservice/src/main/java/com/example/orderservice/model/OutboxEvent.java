@@ -0,0 +1,84 @@
+package com.example.orderservice.model;
+
+import jakarta.persistence.*;
+import org.hibernate.annotations.ColumnDefault;
+
+import java.time.Instant;
+
+// Broker'a gidecek event'lerin sipariş ile aynı transaction içinde yazıldığı outbox kaydı
+// OutboxRelay bu tabloyu sırayla boşaltır, yayınlanan kayıtlar silinir
+@Entity
+@Table(name = "order_outbox")
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "order_outbox_seq")
+    @SequenceGenerator(name = "order_outbox_seq", sequenceName = "order_outbox_seq", allocationSize = 50)
+    private Long id;
+
+    private Long aggregateId;
+
+    @Column(nullable = false)
+    private String routingKey;
+
+    // OrderEventCodec ile encode edilmiş event
+    @Column(nullable = false, columnDefinition = "bytea")
+    private byte[] body;
+
+    @Column(nullable = false)
+    private String contentType;
+
+    @Column(nullable = false)
+    private int schemaVersion;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    // Toplu işlemlerde body birden fazla event'i lengthHeader4 formatında paketlenmiş olarak taşır
+    @Column(nullable = false)
+    @ColumnDefault("1")
+    private int eventCount = 1;
+
+    public OutboxEvent() {}
+
+    public OutboxEvent(Long aggregateId, String routingKey, byte[] body, String contentType, int schemaVersion) {
+        this.aggregateId = aggregateId;
+        this.routingKey = routingKey;
+        this.body = body;
+        this.contentType = contentType;
+        this.schemaVersion = schemaVersion;
+        this.createdAt = Instant.now();
+    }
+
+    public OutboxEvent(Long aggregateId, String routingKey, byte[] body, String contentType, int schemaVersion, int eventCount) {
+        this(aggregateId, routingKey, body, contentType, schemaVersion);
+        this.eventCount = eventCount;
+    }
+
+    // Getters and Setters
+    public Long getId() { return id; }
+    public void setId(Long id) { this.id = id; }
+
+    public Long getAggregateId() { return aggregateId; }
+    public void setAggregateId(Long aggregateId) { this.aggregateId = aggregateId; }
+
+    public String getRoutingKey() { return routingKey; }
+    public void setRoutingKey(String routingKey) { this.routingKey = routingKey; }
+
+    public byte[] getBody() { return body; }
+    public void setBody(byte[] body) { this.body = body; }
+
+    public String getContentType() { return contentType; }
+    public void setContentType(String contentType) { this.contentType = contentType; }
+
+    public int getSchemaVersion() { return schemaVersion; }
+    public void setSchemaVersion(int schemaVersion) { this.schemaVersion = schemaVersion; }
+
+    public Instant getCreatedAt() { return createdAt; }
+    public void setCreatedAt(Instant createdAt) { this.createdAt = createdAt; }
+
+    public int getEventCount() { return eventCount; }
+    public void setEventCount(int eventCount) { this.eventCount = eventCount; }
+
+    public boolean isPacked() { return eventCount > 1; }
+}
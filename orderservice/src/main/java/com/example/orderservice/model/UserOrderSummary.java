@@ -0,0 +1,102 @@
+package com.example.orderservice.model;
+
+import jakarta.persistence.*;
+
+import java.time.Instant;
+
+// Kullanıcı başına sipariş özeti; OrderSummaryService tarafından her yazmada artımlı güncellenir
+// Durum başına sayılar ayrı kolonlardadır, böylece özet tek satırlık bir primary key okumasıdır
+@Entity
+@Table(name = "user_order_summary")
+public class UserOrderSummary {
+
+    @Id
+    private String userId;
+
+    @Column(nullable = false)
+    private long createdOrders;
+
+    @Column(nullable = false)
+    private long paidOrders;
+
+    @Column(nullable = false)
+    private long processingOrders;
+
+    @Column(nullable = false)
+    private long shippedOrders;
+
+    @Column(nullable = false)
+    private long deliveredOrders;
+
+    @Column(nullable = false)
+    private long canceledOrders;
+
+    @Column(nullable = false)
+    private long failedOrders;
+
+    @Column(nullable = false)
+    private long completedOrders;
+
+    // Tüm siparişlerdeki item satırı sayısı ve toplam adet
+    @Column(nullable = false)
+    private long itemCount;
+
+    @Column(nullable = false)
+    private long totalQuantity;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    public UserOrderSummary() {}
+
+    public UserOrderSummary(String userId) {
+        this.userId = userId;
+    }
+
+    public long getOrders(OrderStatus status) {
+        return switch (status) {
+            case CREATED -> createdOrders;
+            case PAID -> paidOrders;
+            case PROCESSING -> processingOrders;
+            case SHIPPED -> shippedOrders;
+            case DELIVERED -> deliveredOrders;
+            case CANCELED -> canceledOrders;
+            case FAILED -> failedOrders;
+            case COMPLETED -> completedOrders;
+        };
+    }
+
+    public void setOrders(OrderStatus status, long count) {
+        switch (status) {
+            case CREATED -> createdOrders = count;
+            case PAID -> paidOrders = count;
+            case PROCESSING -> processingOrders = count;
+            case SHIPPED -> shippedOrders = count;
+            case DELIVERED -> deliveredOrders = count;
+            case CANCELED -> canceledOrders = count;
+            case FAILED -> failedOrders = count;
+            case COMPLETED -> completedOrders = count;
+        }
+    }
+
+    public long getTotalOrders() {
+        long total = 0;
+        for (OrderStatus status : OrderStatus.values()) {
+            total += getOrders(status);
+        }
+        return total;
+    }
+
+    // Getters and Setters
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public long getItemCount() { return itemCount; }
+    public void setItemCount(long itemCount) { this.itemCount = itemCount; }
+
+    public long getTotalQuantity() { return totalQuantity; }
+    public void setTotalQuantity(long totalQuantity) { this.totalQuantity = totalQuantity; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,59 @@
+package com.example.orderservice.model;
+
+import jakarta.persistence.*;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+// user.registered / user.deleted event'lerinden beslenen yerel kullanıcı kaydı
+// Silinen kullanıcılar satır olarak kalır (tombstone); geç gelen bir register onları geri getirmez
+@Entity
+@Table(name = "user_projection")
+public class UserProjection implements Persistable<String> {
+
+    @Id
+    private String userId;
+
+    private String email;
+
+    @Column(nullable = false)
+    private boolean deleted;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    // Atanmış id ile saveAll her satır için select yapmasın diye yeni/var olan ayrımı burada tutulur
+    @Transient
+    private boolean isNew = true;
+
+    public UserProjection() {}
+
+    public UserProjection(String userId) {
+        this.userId = userId;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.isNew = false;
+    }
+
+    @Override
+    public String getId() { return userId; }
+
+    @Override
+    public boolean isNew() { return isNew; }
+
+    // Getters and Setters
+    public String getUserId() { return userId; }
+    public void setUserId(String userId) { this.userId = userId; }
+
+    public String getEmail() { return email; }
+    public void setEmail(String email) { this.email = email; }
+
+    public boolean isDeleted() { return deleted; }
+    public void setDeleted(boolean deleted) { this.deleted = deleted; }
+
+    public Instant getUpdatedAt() { return updatedAt; }
+    public void setUpdatedAt(Instant updatedAt) { this.updatedAt = updatedAt; }
+}
@@ -0,0 +1,28 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.dto.OrderStatusView;
+import com.example.orderservice.dto.UserOrderTotalsView;
+import com.example.orderservice.model.ArchivedOrder;
+import org.springframework.data.jpa.repository.EntityGraph;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface ArchivedOrderRepository extends JpaRepository<ArchivedOrder, Long> {
+
+    @EntityGraph(attributePaths = "items")
+    Optional<ArchivedOrder> findWithItemsById(Long id);
+
+    // Status polling canlı tabloda bulamadığı siparişi burada arar
+    Optional<OrderStatusView> findStatusById(Long id);
+
+    // Kullanıcı özetinin rebuild'i arşivdeki siparişleri de sayar
+    @Query("select o.status as status, count(distinct o.id) as orders, count(i.id) as items, coalesce(sum(i.quantity), 0) as quantity "
+            + "from ArchivedOrder o left join o.items i where o.userId = :userId group by o.status")
+    List<UserOrderTotalsView> findTotalsByUserId(@Param("userId") String userId);
+}
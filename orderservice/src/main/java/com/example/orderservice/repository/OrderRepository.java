@@ -1,13 +1,107 @@
 package com.example.orderservice.repository;
 
+import com.example.orderservice.dto.OrderLineView;
+import com.example.orderservice.dto.OrderStatusView;
+import com.example.orderservice.dto.UserOrderTotalsView;
 import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderStatus;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
 
+/**
+ * Fetch planları:
+ * - findBy... metodları item'ları lazy bırakır (sadece sipariş satırı gerekiyorsa)
+ * - findWithItems... metodları Order.items entity graph'ı ile item'ları tek sorguda join eder
+ * - sayfalı okumada önce id sayfası alınır, sonra o id'ler item'larla birlikte çekilir;
+ *   collection fetch join ile sayfalama Hibernate'i bellekte sayfalamaya zorlardı
+ */
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByUserId(String userId);
 
-}
\ No newline at end of file
+    @EntityGraph(Order.WITH_ITEMS)
+    List<Order> findWithItemsByUserId(String userId);
+
+    @EntityGraph(Order.WITH_ITEMS)
+    Optional<Order> findWithItemsById(Long id);
+
+    // Yazma yolları için: sadece item'lar değişse bile commit'te siparişin version'ı artar,
+    // böylece aynı siparişe eşzamanlı her değişiklik optimistic lock çakışması olarak yakalanır
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    Optional<Order> findForUpdateById(Long id);
+
+    @EntityGraph(Order.WITH_ITEMS)
+    List<Order> findWithItemsByIdIn(Collection<Long> ids, Sort sort);
+
+    @Query(value = "select o.id from Order o", countQuery = "select count(o) from Order o")
+    Page<Long> findIds(Pageable pageable);
+
+    // Keyset sayfalama: OFFSET taraması ve count(*) yerine id üzerinden seek
+    @Query("select o.id from Order o where o.id > :afterId order by o.id")
+    List<Long> findIdsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("select o.id from Order o where o.status = :status and o.id > :afterId order by o.id")
+    List<Long> findIdsByStatusAfter(@Param("status") OrderStatus status, @Param("afterId") Long afterId, Limit limit);
+
+    long countByStatus(OrderStatus status);
+
+    // Status polling için: item'lara ve diğer kolonlara dokunmayan projection sorgusu
+    Optional<OrderStatusView> findStatusById(Long id);
+
+    // Export için: satırlar JDBC fetch size ile parça parça okunur, item'lar aynı sorguda gelir
+    @Query("select o from Order o left join fetch o.items where o.userId = :userId order by o.id")
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    Stream<Order> streamWithItemsByUserId(@Param("userId") String userId);
+
+    // Kullanıcı özetinin rebuild'i için: durum başına sipariş, item satırı ve adet toplamları
+    @Query("select o.status as status, count(distinct o.id) as orders, count(i.id) as items, coalesce(sum(i.quantity), 0) as quantity "
+            + "from Order o left join o.items i where o.userId = :userId group by o.status")
+    List<UserOrderTotalsView> findTotalsByUserId(@Param("userId") String userId);
+
+    // Arşivlenecek siparişler; SKIP LOCKED ile o an yazılan siparişler atlanır, bir sonraki turda tekrar denenir
+    @Query("select o.id from Order o where o.status in :statuses and o.updatedAt < :cutoff")
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = "jakarta.persistence.lock.timeout", value = "-2"))
+    List<Long> findIdsToArchive(@Param("statuses") Collection<OrderStatus> statuses, @Param("cutoff") Instant cutoff, Limit limit);
+
+    // Toplu işlemler: siparişler item'larıyla birlikte tek okumada, kilitsiz; durum kontrolü update'in kendisinde
+    String ORDER_LINES = "select o.id as orderId, o.userId as userId, o.status as status, o.version as version, "
+            + "i.id as itemId, i.productId as productId, i.quantity as quantity from Order o left join o.items i ";
+
+    @Query(ORDER_LINES + "where o.id in :ids and o.status in :statuses order by o.id, i.id")
+    List<OrderLineView> findLinesByIdIn(@Param("ids") Collection<Long> ids, @Param("statuses") Collection<OrderStatus> statuses);
+
+    @Query(ORDER_LINES + "where o.id in :ids order by o.id, i.id")
+    List<OrderLineView> findLinesByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Kullanıcının ilk limit siparişi; silinen parçanın ardından bir sonraki okuma sonraki parçayı getirir
+    @Query(ORDER_LINES + "where o.id in (select u.id from Order u where u.userId = :userId order by u.id limit :limit) "
+            + "order by o.id, i.id")
+    List<OrderLineView> findLinesByUserId(@Param("userId") String userId, @Param("limit") int limit);
+
+    // Rebuild job'u kullanıcıları idx_order_user_id üzerinden keyset ile gezer
+    @Query("select distinct o.userId from Order o where o.userId > :afterUserId order by o.userId")
+    List<String> findUserIdsAfter(@Param("afterUserId") String afterUserId, Limit limit);
+
+}
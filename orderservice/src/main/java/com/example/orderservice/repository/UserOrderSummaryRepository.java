@@ -0,0 +1,23 @@
+package com.example.orderservice.repository;
+
+import com.example.orderservice.model.UserOrderSummary;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface UserOrderSummaryRepository extends JpaRepository<UserOrderSummary, String> {
+
+    // Rebuild toplamları okurken özet satırını kilitler; sipariş yazmaları farkı kilitsiz, atomik update ile ekler
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    Optional<UserOrderSummary> findForUpdateByUserId(String userId);
+
+    // Canlı tabloda siparişi olmayan kullanıcıların özetleri; rebuild bunları arşive göre düzeltir ya da siler
+    @Query("select s.userId from UserOrderSummary s where not exists (select 1 from Order o where o.userId = s.userId)")
+    List<String> findUserIdsWithoutOrders();
+}
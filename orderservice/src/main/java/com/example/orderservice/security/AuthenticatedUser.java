@@ -0,0 +1,34 @@
+package com.example.orderservice.security;
+
+// JwtAuthenticationFilter tarafından doğrulanan token'ın sahibi, handler'lara parametre olarak enjekte edilir
+public class AuthenticatedUser {
+
+    public static final String REQUEST_ATTRIBUTE = AuthenticatedUser.class.getName();
+
+    // userservice token'a "role" claim'i olarak user ya da admin yazar
+    public static final String ADMIN_ROLE = "admin";
+
+    private final String userId;
+    private final String role;
+
+    public AuthenticatedUser(String userId) {
+        this(userId, null);
+    }
+
+    public AuthenticatedUser(String userId, String role) {
+        this.userId = userId;
+        this.role = role;
+    }
+
+    public String getUserId() { return userId; }
+    public String getRole() { return role; }
+
+    public boolean isAdmin() {
+        return ADMIN_ROLE.equals(role);
+    }
+
+    // Kullanıcı kendi siparişleri üzerinde, admin herkesinkiler üzerinde işlem yapabilir
+    public boolean canActFor(String userId) {
+        return isAdmin() || this.userId.equals(userId);
+    }
+}
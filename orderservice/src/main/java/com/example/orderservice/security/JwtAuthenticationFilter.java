@@ -0,0 +1,54 @@
+package com.example.orderservice.security;
+
+import com.example.orderservice.service.JwtService;
+import io.jsonwebtoken.Claims;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Her istekte token'ı bir kez doğrular ve {@link AuthenticatedUser}'ı request attribute olarak koyar.
+ *
+ * Geçersiz veya eksik token exception fırlatılmadan doğrudan 401 ile cevaplanır,
+ * istek controller'a hiç ulaşmaz.
+ */
+public class JwtAuthenticationFilter extends OncePerRequestFilter {
+
+    private static final String BEARER_PREFIX = "Bearer ";
+
+    private final JwtService jwtService;
+
+    public JwtAuthenticationFilter(JwtService jwtService) {
+        this.jwtService = jwtService;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String authHeader = request.getHeader(HttpHeaders.AUTHORIZATION);
+        if (authHeader == null || !authHeader.startsWith(BEARER_PREFIX)) {
+            reject(response);
+            return;
+        }
+        Claims claims = jwtService.tryVerify(authHeader.substring(BEARER_PREFIX.length()));
+        Object userId = claims == null ? null : claims.get("id");
+        if (userId == null) {
+            reject(response);
+            return;
+        }
+        Object role = claims.get("role");
+        request.setAttribute(AuthenticatedUser.REQUEST_ATTRIBUTE,
+                new AuthenticatedUser(String.valueOf(userId), role == null ? null : String.valueOf(role)));
+        filterChain.doFilter(request, response);
+    }
+
+    private void reject(HttpServletResponse response) {
+        response.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
+        response.setHeader(HttpHeaders.WWW_AUTHENTICATE, "Bearer");
+    }
+}
@@ -0,0 +1,209 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.configuration.RabbitQueue;
+import com.example.orderservice.dto.BulkOrderResult;
+import com.example.orderservice.dto.OrderLineView;
+import com.example.orderservice.dto.OrderUpdatedDTO;
+import com.example.orderservice.exception.OrderConflictException;
+import com.example.orderservice.logger.LoggerService;
+import com.example.orderservice.messaging.OrderEventOutbox;
+import com.example.orderservice.messaging.event.OrderEvent;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Çok sayıda siparişin durumunu değiştiren ya da silen set tabanlı toplu işlemler (fraud taraması
+ * sonrası iptaller, kullanıcı temizliği).
+ *
+ * Siparişler entity olarak yüklenmez ve kilitlenmez: parça başına satırlar item'larıyla birlikte tek
+ * sorguda okunur, değişiklik tek bir update / delete ile yapılır. Geçiş kuralı ({@link OrderTransitions})
+ * update'in where koşulundadır, geçersiz durumdaki siparişler atlanır ve cevapta listelenir. Okuma ile
+ * update arasında başka bir işlem satırları değiştirdiyse etkilenen satır sayısı tutmaz, işlem geri alınır
+ * ve {@link OrderConflictException} (409) döner. Kaynak durumlar arasındaki eşzamanlı bir geçiş
+ * (ör. saga'nın CREATED -> PROCESSING'i) sayıyı değiştirmez; özetteki bu kaymayı rebuild job'u düzeltir.
+ *
+ * Kullanıcı özetleri tek apply ile, event'ler parça başına tek outbox kaydına paketlenerek yazılır. Parça
+ * boyutu order.batch.max-size'dır: id listesiyle gelen istekler bu sınırı aşamadığından tek batch event'i
+ * üretir, kullanıcının siparişlerini silme ise parça başına bir batch event'i üretir.
+ */
+@Service
+public class BulkOrderService {
+
+    // version elle artırılır: bu siparişi eski version ile yazmaya çalışan işlem optimistic lock çakışması alır
+    private static final String UPDATE_STATUS = "update Order o set o.status = :to, o.version = o.version + 1, "
+            + "o.updatedAt = :now where o.id in :ids and o.status in :from";
+    private static final String DELETE_ITEMS = "delete from OrderItem i where i.order.id in :ids";
+    private static final String DELETE_ORDERS = "delete from Order o where o.id in :ids";
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderEventOutbox orderEventOutbox;
+
+    @Autowired
+    private OrderSummaryService orderSummaryService;
+
+    @Autowired
+    private OrderCache orderCache;
+
+    @Autowired
+    private LoggerService logger;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${order.batch.max-size:1000}")
+    private int chunkSize;
+
+    private final Counter transitionedOrders;
+    private final Counter deletedOrders;
+
+    public BulkOrderService(MeterRegistry registry) {
+        this.transitionedOrders = Counter.builder("orders.bulk.orders").tag("operation", "status")
+                .description("Orders changed by bulk status and delete operations")
+                .register(registry);
+        this.deletedOrders = Counter.builder("orders.bulk.orders").tag("operation", "delete")
+                .description("Orders changed by bulk status and delete operations")
+                .register(registry);
+    }
+
+    public static boolean isBulkTarget(OrderStatus status) {
+        return OrderTransitions.isTarget(status);
+    }
+
+    @Transactional
+    public BulkOrderResult changeStatus(List<Long> orderIds, OrderStatus target) {
+        Set<OrderStatus> from = OrderTransitions.sourcesOf(target);
+        if (from.isEmpty()) {
+            throw new IllegalArgumentException("Bulk transition to " + target + " is not allowed");
+        }
+        List<Long> ids = List.copyOf(new LinkedHashSet<>(orderIds));
+        Set<Long> changed = new LinkedHashSet<>();
+        OrderSummaryChanges summaryChanges = new OrderSummaryChanges();
+        Instant now = Instant.now();
+        for (int start = 0; start < ids.size(); start += chunkSize) {
+            List<Long> chunk = ids.subList(start, Math.min(start + chunkSize, ids.size()));
+            List<Row> rows = Row.of(orderRepository.findLinesByIdIn(chunk, from));
+            if (rows.isEmpty()) {
+                continue;
+            }
+            List<Long> rowIds = rows.stream().map(Row::id).toList();
+            int updated = entityManager.createQuery(UPDATE_STATUS)
+                    .setParameter("to", target)
+                    .setParameter("now", now)
+                    .setParameter("ids", rowIds)
+                    .setParameter("from", from)
+                    .executeUpdate();
+            requireAll(rows, updated);
+            rows.forEach(row -> summaryChanges.statusChanged(row.userId(), row.status(), target));
+            // productservice iptalde stoğu item'lara göre geri ekler; diğer geçişler item taşımaz
+            if (target == OrderStatus.CANCELED) {
+                orderEventOutbox.enqueuePacked(RabbitQueue.ORDER_CANCELED, rowIds.get(0), rows.stream()
+                        .map(row -> new OrderEvent(row.id(), row.userId(), target, row.version() + 1, row.items()))
+                        .toList());
+            } else {
+                orderEventOutbox.enqueuePacked(RabbitQueue.ORDER_UPDATED, rowIds.get(0), rows.stream()
+                        .map(row -> new OrderUpdatedDTO.Builder().orderId(row.id()).userId(row.userId()).status(target).build())
+                        .toList());
+            }
+            rowIds.forEach(orderCache::invalidate);
+            changed.addAll(rowIds);
+        }
+        orderSummaryService.apply(summaryChanges);
+        transitionedOrders.increment(changed.size());
+        logger.info("Bulk status change to {}: {} of {} orders", target, changed.size(), ids.size());
+        return new BulkOrderResult(changed.size(), ids.stream().filter(id -> !changed.contains(id)).toList());
+    }
+
+    @Transactional
+    public BulkOrderResult deleteOrders(List<Long> orderIds) {
+        List<Long> ids = List.copyOf(new LinkedHashSet<>(orderIds));
+        Set<Long> deleted = new LinkedHashSet<>();
+        OrderSummaryChanges summaryChanges = new OrderSummaryChanges();
+        for (int start = 0; start < ids.size(); start += chunkSize) {
+            List<Long> chunk = ids.subList(start, Math.min(start + chunkSize, ids.size()));
+            deleted.addAll(delete(Row.of(orderRepository.findLinesByIdIn(chunk)), summaryChanges));
+        }
+        orderSummaryService.apply(summaryChanges);
+        deletedOrders.increment(deleted.size());
+        logger.info("Bulk delete: {} of {} orders", deleted.size(), ids.size());
+        return new BulkOrderResult(deleted.size(), ids.stream().filter(id -> !deleted.contains(id)).toList());
+    }
+
+    // Sadece canlı siparişler silinir; arşivdekiler değiştirilemez ve özette kalır
+    @Transactional
+    public BulkOrderResult deleteOrdersByUserId(String userId) {
+        int deleted = 0;
+        OrderSummaryChanges summaryChanges = new OrderSummaryChanges();
+        List<Row> rows;
+        do {
+            rows = Row.of(orderRepository.findLinesByUserId(userId, chunkSize));
+            deleted += delete(rows, summaryChanges).size();
+        } while (rows.size() == chunkSize);
+        orderSummaryService.apply(summaryChanges);
+        deletedOrders.increment(deleted);
+        logger.info("Bulk delete for user {}: {} orders", userId, deleted);
+        return new BulkOrderResult(deleted, List.of());
+    }
+
+    private List<Long> delete(List<Row> rows, OrderSummaryChanges summaryChanges) {
+        if (rows.isEmpty()) {
+            return List.of();
+        }
+        List<Long> rowIds = rows.stream().map(Row::id).toList();
+        List<OrderEvent> events = new ArrayList<>(rows.size());
+        for (Row row : rows) {
+            events.add(new OrderEvent(row.id(), row.userId(), row.status(), row.version(),
+                    OrderTransitions.holdsStock(row.status()) ? row.items() : List.of()));
+            summaryChanges.statusChanged(row.userId(), row.status(), null)
+                    .itemsChanged(row.userId(), -row.items().size(), -row.items().stream().mapToLong(OrderEvent.Item::quantity).sum());
+        }
+        entityManager.createQuery(DELETE_ITEMS).setParameter("ids", rowIds).executeUpdate();
+        requireAll(rows, entityManager.createQuery(DELETE_ORDERS).setParameter("ids", rowIds).executeUpdate());
+        orderEventOutbox.enqueuePacked(RabbitQueue.ORDER_DELETED, rowIds.get(0), events);
+        rowIds.forEach(orderCache::invalidate);
+        return rowIds;
+    }
+
+    // Okunan satırlardan biri update / delete'e kadar değiştiyse ya da silindiyse özet ve event'ler tutmaz
+    private static void requireAll(List<Row> rows, int affected) {
+        if (affected != rows.size()) {
+            throw new OrderConflictException("Orders were modified concurrently during a bulk operation, please retry");
+        }
+    }
+
+    // Sipariş başına okunan satır; item'lar aynı okumadan gelir
+    private record Row(Long id, String userId, OrderStatus status, Long version, List<OrderEvent.Item> items) {
+
+        // Satırlar o.id, i.id sırasında gelir
+        static List<Row> of(List<OrderLineView> lines) {
+            List<Row> rows = new ArrayList<>();
+            Row current = null;
+            for (OrderLineView line : lines) {
+                if (current == null || !current.id().equals(line.getOrderId())) {
+                    current = new Row(line.getOrderId(), line.getUserId(), line.getStatus(), line.getVersion(), new ArrayList<>());
+                    rows.add(current);
+                }
+                if (line.getItemId() != null) {
+                    current.items().add(new OrderEvent.Item(line.getItemId(), line.getProductId(), line.getQuantity()));
+                }
+            }
+            return rows;
+        }
+    }
+}
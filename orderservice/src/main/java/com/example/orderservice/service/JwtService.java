@@ -1,35 +1,195 @@
 package com.example.orderservice.service;
 
-import io.jsonwebtoken.SignatureException;
+import com.example.orderservice.diagnostics.JwtVerificationEvent;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import io.jsonwebtoken.Claims;
-import io.jsonwebtoken.io.Decoders;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 
+import javax.crypto.Mac;
 import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
 
 
+/**
+ * Token doğrulama servisi.
+ *
+ * Key ve parser bir kez oluşturulur. Doğrulanmış token'ların claim'leri, token'ın SHA-256
+ * özeti ile sınırlı boyutlu bir cache'te tutulur ve token'ın {@code exp} anında cache'ten düşer;
+ * aynı token tekrar geldiğinde imza ve JSON çözümleme yapılmaz. jwt.cache.enabled=false ile cache
+ * atlanır ve her doğrulama imza kontrolü ve parse'a gider (karşılaştırma ve sorun giderme için).
+ */
 @Service
 public class JwtService {
 
     private final String secretKey = "supersecret_supersecretkey12345678";  // should be +32 chars
 
+    private final Key key = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
+    private final JwtParser parser = Jwts.parserBuilder().setSigningKey(key).build();
+
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final ThreadLocal<Mac> hmacSha256 = ThreadLocal.withInitial(() -> {
+        try {
+            Mac mac = Mac.getInstance("HmacSHA256");
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
+    private final Cache<String, Claims> claimsCache;
+    private final boolean cacheEnabled;
+
+    private final Timer cachedVerifications;
+    private final Timer parsedVerifications;
+    private final Timer rejectedVerifications;
+
+    public JwtService(MeterRegistry registry,
+                      @Value("${jwt.cache.enabled:true}") boolean cacheEnabled,
+                      @Value("${jwt.cache.max-size:100000}") long maxSize,
+                      @Value("${jwt.cache.max-ttl-seconds:3600}") long maxTtlSeconds) {
+        this.cacheEnabled = cacheEnabled;
+        long maxTtlNanos = TimeUnit.SECONDS.toNanos(maxTtlSeconds);
+        this.claimsCache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfter(new Expiry<String, Claims>() {
+                    @Override
+                    public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+                        return untilExpiration(claims, maxTtlNanos);
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+                        return untilExpiration(claims, maxTtlNanos);
+                    }
+
+                    @Override
+                    public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+                        return currentDuration;
+                    }
+                })
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, claimsCache, "jwt.claims");
+
+        this.cachedVerifications = verifyTimer(registry, "cached");
+        this.parsedVerifications = verifyTimer(registry, "parsed");
+        this.rejectedVerifications = verifyTimer(registry, "rejected");
+    }
+
+    private static Timer verifyTimer(MeterRegistry registry, String result) {
+        return Timer.builder("jwt.verify")
+                .description("Token verification time by outcome")
+                .tag("result", result)
+                .register(registry);
+    }
+
     public Claims verifyToken(String token) {
+        Claims claims = tryVerify(token);
+        if (claims == null) {
+            throw new RuntimeException("Token verification failed");
+        }
+        return claims;
+    }
+
+    /**
+     * Token geçerliyse claim'leri, değilse null döner; geçersiz token için exception üretmez.
+     *
+     * İmza, jjwt'ye gitmeden önce HMAC ile burada kontrol edilir; sahte veya bozuk token'lar
+     * stack trace'li exception oluşturmadan, geçerli bir token'dan daha ucuza reddedilir.
+     */
+    public Claims tryVerify(String token) {
+        long start = System.nanoTime();
+        JwtVerificationEvent event = new JwtVerificationEvent();
+        event.begin();
+        if (token == null) return timed(rejectedVerifications, start, event, null);
+        if (token.startsWith("Bearer ")) token = token.substring(7);
+
+        String digest = cacheEnabled ? digest(token) : null;
+        Claims cached = cacheEnabled ? claimsCache.getIfPresent(digest) : null;
+        if (cached != null) {
+            return timed(cachedVerifications, start, event, cached);
+        }
+        if (!hasValidSignature(token)) {
+            return timed(rejectedVerifications, start, event, null);
+        }
         try {
-            if (token.startsWith("Bearer ")) token = token.substring(7);
-
-            Key key = Keys.hmacShaKeyFor(secretKey.getBytes(StandardCharsets.UTF_8));
-            Claims claims = Jwts.parserBuilder()
-                    .setSigningKey(key)
-                    .build()
-                    .parseClaimsJws(token)
-                    .getBody();
-            System.out.println("Token is valid: " + claims);
-            return claims;
+            Claims claims = parser.parseClaimsJws(token).getBody();
+            if (cacheEnabled) {
+                claimsCache.put(digest, claims);
+            }
+            return timed(parsedVerifications, start, event, claims);
         } catch (Exception e) {
-            throw new RuntimeException("Token verification failed", e);
+            // İmza doğru ama token süresi dolmuş ya da claim'ler geçersiz
+            return timed(rejectedVerifications, start, event, null);
+        }
+    }
+
+    private static Claims timed(Timer timer, long start, JwtVerificationEvent event, Claims claims) {
+        timer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        event.commit(timer.getId().getTag("result"));
+        return claims;
+    }
+
+    private boolean hasValidSignature(String token) {
+        int firstDot = token.indexOf('.');
+        int lastDot = token.lastIndexOf('.');
+        if (firstDot <= 0 || lastDot == firstDot || lastDot == token.length() - 1
+                || token.indexOf('.', firstDot + 1) != lastDot) {
+            return false;
         }
+        for (int i = lastDot + 1; i < token.length(); i++) {
+            if (!isBase64UrlChar(token.charAt(i))) {
+                return false;
+            }
+        }
+        // HS256 imzası 32 byte, yani padding'siz 43 base64url karakteri
+        if (token.length() - lastDot - 1 != 43) {
+            return false;
+        }
+        byte[] signature = Base64.getUrlDecoder().decode(token.substring(lastDot + 1));
+        Mac mac = hmacSha256.get();
+        byte[] expected = mac.doFinal(token.substring(0, lastDot).getBytes(StandardCharsets.US_ASCII));
+        return MessageDigest.isEqual(expected, signature);
+    }
+
+    private static boolean isBase64UrlChar(char c) {
+        return (c >= 'A' && c <= 'Z') || (c >= 'a' && c <= 'z') || (c >= '0' && c <= '9') || c == '-' || c == '_';
+    }
+
+    private static long untilExpiration(Claims claims, long maxTtlNanos) {
+        Date expiration = claims.getExpiration();
+        if (expiration == null) {
+            return maxTtlNanos;
+        }
+        long remaining = TimeUnit.MILLISECONDS.toNanos(expiration.getTime() - System.currentTimeMillis());
+        return Math.max(0, Math.min(remaining, maxTtlNanos));
+    }
+
+    private static String digest(String token) {
+        byte[] hash = SHA_256.get().digest(token.getBytes(StandardCharsets.UTF_8));
+        return Base64.getEncoder().encodeToString(hash);
     }
 }
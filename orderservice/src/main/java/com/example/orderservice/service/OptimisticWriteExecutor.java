@@ -0,0 +1,70 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.exception.OrderConflictException;
+import com.example.orderservice.logger.LoggerService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Sipariş değiştiren işlemleri @Version tabanlı optimistic locking ile çalıştırır.
+ *
+ * Her deneme kendi transaction'ında baştan yapılır (okuma dahil). Commit sırasında version
+ * çakışması olursa kısa, rastgele bir beklemeden sonra tekrar denenir; deneme sınırı
+ * aşılırsa {@link OrderConflictException} fırlatılır ve istemciye 409 döner.
+ * Satır kilidi alınmadığı için aynı siparişe gelen yazmalar birbirini sıraya sokmaz.
+ */
+@Component
+public class OptimisticWriteExecutor {
+
+    @Autowired
+    private LoggerService logger;
+
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry registry;
+    private final int maxAttempts;
+    private final long maxBackoffMs;
+
+    public OptimisticWriteExecutor(PlatformTransactionManager transactionManager, MeterRegistry registry,
+                                   @Value("${order.write.max-attempts:3}") int maxAttempts,
+                                   @Value("${order.write.max-backoff-ms:50}") long maxBackoffMs) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.registry = registry;
+        this.maxAttempts = maxAttempts;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    public <T> T execute(String operation, Supplier<T> work) {
+        registry.counter("orders.writes", "operation", operation).increment();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(status -> work.get());
+            } catch (OptimisticLockingFailureException e) {
+                registry.counter("orders.write.conflicts", "operation", operation).increment();
+                if (attempt >= maxAttempts) {
+                    registry.counter("orders.write.conflicts.exhausted", "operation", operation).increment();
+                    logger.warn("Order {} gave up after {} conflicting attempts", operation, attempt);
+                    throw new OrderConflictException("Order was modified concurrently, please retry", e);
+                }
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long bound = Math.min(maxBackoffMs, 5L << attempt);
+        try {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(1, Math.max(2, bound)));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new OrderConflictException("Interrupted while retrying order write", e);
+        }
+    }
+}
@@ -0,0 +1,137 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.logger.LoggerService;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.repository.OrderRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Terminal durumdaki (DELIVERED, CANCELED, COMPLETED, FAILED) ve belirli bir süredir değişmeyen
+ * siparişleri "order" / order_items tablolarından order_archive / order_item_archive'a taşır.
+ *
+ * Her batch kendi kısa transaction'ındadır: id'ler FOR UPDATE SKIP LOCKED ile seçilir, satırlar
+ * insert ... select ile kopyalanıp silinir; sipariş nesneleri belleğe yüklenmez. Batch'ler arasında
+ * pause-ms kadar beklenir ve bir turda en fazla max-batches batch işlenir, böylece job canlı trafikle
+ * bağlantı ve kilit için yarışmaz; kalanlar bir sonraki tura kalır.
+ *
+ * Arşivlenen siparişler GET /orders/{id} ile okunmaya devam eder (OrderCache arşive düşer) ve
+ * kullanıcı özetlerinde sayılmaya devam eder; değiştirilemezler.
+ */
+@Component
+public class OrderArchiver {
+
+    static final Set<OrderStatus> TERMINAL = EnumSet.of(
+            OrderStatus.DELIVERED, OrderStatus.CANCELED, OrderStatus.COMPLETED, OrderStatus.FAILED);
+
+    private static final String COPY_ORDERS = "insert into ArchivedOrder (id, userId, status, version, updatedAt, archivedAt) "
+            + "select o.id, o.userId, o.status, o.version, o.updatedAt, :now from Order o where o.id in :ids";
+    private static final String COPY_ITEMS = "insert into ArchivedOrderItem (id, productId, quantity, orderId) "
+            + "select i.id, i.productId, i.quantity, i.order.id from OrderItem i where i.order.id in :ids";
+    private static final String DELETE_ITEMS = "delete from OrderItem i where i.order.id in :ids";
+    private static final String DELETE_ORDERS = "delete from Order o where o.id in :ids";
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderCache orderCache;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private LoggerService logger;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${orders.archive.min-age-days:90}")
+    private long minAgeDays;
+
+    @Value("${orders.archive.batch-size:500}")
+    private int batchSize;
+
+    @Value("${orders.archive.max-batches:100}")
+    private int maxBatches;
+
+    @Value("${orders.archive.pause-ms:200}")
+    private long pauseMs;
+
+    private final Counter archivedOrders;
+    private final Timer batchTimer;
+
+    public OrderArchiver(MeterRegistry registry) {
+        this.archivedOrders = Counter.builder("orders.archive.orders")
+                .description("Terminal orders moved to the archive tables")
+                .register(registry);
+        this.batchTimer = Timer.builder("orders.archive.batch")
+                .description("Time to copy and delete one archive batch")
+                .register(registry);
+    }
+
+    /**
+     * Bir arşivleme turu çalıştırır ve taşınan sipariş sayısını döner.
+     */
+    @Scheduled(fixedDelayString = "${orders.archive.interval-ms:600000}", initialDelayString = "${orders.archive.interval-ms:600000}")
+    public int archive() {
+        Instant cutoff = Instant.now().minus(Duration.ofDays(minAgeDays));
+        int total = 0;
+        for (int batch = 0; batch < maxBatches; batch++) {
+            int archived = archiveBatch(cutoff);
+            total += archived;
+            if (archived < batchSize || !pause()) {
+                break;
+            }
+        }
+        if (total > 0) {
+            logger.info("🗄️ Archived {} orders last updated before {}", total, cutoff);
+        }
+        return total;
+    }
+
+    int archiveBatch(Instant cutoff) {
+        Integer archived = batchTimer.record(() -> transactionTemplate.execute(status -> {
+            List<Long> ids = orderRepository.findIdsToArchive(TERMINAL, cutoff, Limit.of(batchSize));
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            entityManager.createQuery(COPY_ORDERS).setParameter("ids", ids).setParameter("now", Instant.now()).executeUpdate();
+            entityManager.createQuery(COPY_ITEMS).setParameter("ids", ids).executeUpdate();
+            entityManager.createQuery(DELETE_ITEMS).setParameter("ids", ids).executeUpdate();
+            entityManager.createQuery(DELETE_ORDERS).setParameter("ids", ids).executeUpdate();
+            ids.forEach(orderCache::invalidate);
+            return ids.size();
+        }));
+        archivedOrders.increment(archived);
+        return archived;
+    }
+
+    private boolean pause() {
+        if (pauseMs <= 0) {
+            return true;
+        }
+        try {
+            Thread.sleep(pauseMs);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
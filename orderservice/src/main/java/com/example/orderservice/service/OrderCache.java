@@ -0,0 +1,85 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.model.ArchivedOrder;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.repository.ArchivedOrderRepository;
+import com.example.orderservice.repository.OrderRepository;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+
+/**
+ * OrderRepository.findById önündeki read-through cache.
+ *
+ * Canlı tabloda olmayan sipariş arşivde aranır (bkz. OrderArchiver); arşivdeki siparişler
+ * değişmediği için aynı şekilde cache'lenir ve çağıran taraf farkı görmez.
+ *
+ * Siparişler item'ları ile birlikte yüklenip detach edilir, böylece cache'teki nesne
+ * herhangi bir EntityManager'a bağlı kalmaz. Aynı id için eşzamanlı miss'ler tek bir
+ * veritabanı yüklemesinde birleşir. Bulunamayan siparişler cache'lenmez.
+ *
+ * Cache'teki nesneler sadece okuma içindir; sipariş değiştiren metodlar repository'den
+ * taze kopya alır ve {@link #invalidate(Long)} çağırır.
+ */
+@Component
+public class OrderCache {
+
+    private final OrderRepository orderRepository;
+    private final ArchivedOrderRepository archivedOrderRepository;
+    private final LoadingCache<Long, Order> cache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public OrderCache(OrderRepository orderRepository, ArchivedOrderRepository archivedOrderRepository, MeterRegistry registry,
+                      @Value("${order.cache.max-size:10000}") long maxSize,
+                      @Value("${order.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.orderRepository = orderRepository;
+        this.archivedOrderRepository = archivedOrderRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build(this::load);
+        CaffeineCacheMetrics.monitor(registry, cache, "orders");
+    }
+
+    public Optional<Order> get(Long orderId) {
+        return Optional.ofNullable(cache.get(orderId));
+    }
+
+    /**
+     * Siparişi hemen ve transaction commit olduktan sonra tekrar cache'ten düşürür;
+     * commit'ten önce araya giren bir okuma eski hali cache'e geri koyamaz.
+     */
+    public void invalidate(Long orderId) {
+        cache.invalidate(orderId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cache.invalidate(orderId);
+                }
+            });
+        }
+    }
+
+    private Order load(Long orderId) {
+        Optional<Order> order = orderRepository.findWithItemsById(orderId);
+        if (order.isPresent()) {
+            entityManager.detach(order.get());
+            return order.get();
+        }
+        return archivedOrderRepository.findWithItemsById(orderId).map(ArchivedOrder::toOrder).orElse(null);
+    }
+}
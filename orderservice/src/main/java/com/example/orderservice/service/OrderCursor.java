@@ -0,0 +1,48 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.exception.InvalidCursorException;
+import com.example.orderservice.model.OrderStatus;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Keyset sayfalamanın istemciye verilen opak cursor'ı.
+ *
+ * Son dönen siparişin id'sini ve (varsa) status filtresini taşır; istemci bir sonraki
+ * sayfa için sadece cursor'ı geri gönderir.
+ */
+public final class OrderCursor {
+
+    private static final String VERSION = "v1";
+
+    private final long afterId;
+    private final OrderStatus status;
+
+    public OrderCursor(long afterId, OrderStatus status) {
+        this.afterId = afterId;
+        this.status = status;
+    }
+
+    public long getAfterId() { return afterId; }
+    public OrderStatus getStatus() { return status; }
+
+    public String encode() {
+        String raw = VERSION + ":" + afterId + ":" + (status == null ? "" : status.name());
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static OrderCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":", -1);
+            if (parts.length != 3 || !VERSION.equals(parts[0])) {
+                throw new InvalidCursorException("Invalid cursor: " + cursor);
+            }
+            OrderStatus status = parts[2].isEmpty() ? null : OrderStatus.valueOf(parts[2]);
+            return new OrderCursor(Long.parseLong(parts[1]), status);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -0,0 +1,101 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderItemDelta;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Siparişin item listesini istemcinin gönderdiği listeye göre günceller ve farkı çıkarır.
+ *
+ * Mevcut item'lar id ve productId'ye göre hash'lenir, böylece karşılaştırma O(n + m) olur.
+ * Gelen item önce id ile, id'si yoksa henüz eşleşmemiş aynı productId'li item ile eşlenir;
+ * eşleşmeyenler eklenir, hiçbir gelen item'la eşleşmeyen mevcut item'lar silinir.
+ */
+public final class OrderItemDiff {
+
+    private final List<OrderItemDelta> added = new ArrayList<>();
+    private final List<OrderItemDelta> removed = new ArrayList<>();
+    private final List<OrderItemDelta> quantityChanged = new ArrayList<>();
+
+    private OrderItemDiff() {}
+
+    public static OrderItemDiff apply(Order order, List<OrderItem> incoming) {
+        OrderItemDiff diff = new OrderItemDiff();
+        List<OrderItem> current = order.getItems();
+
+        Map<Long, OrderItem> byId = new HashMap<>(current.size() * 2);
+        Map<String, ArrayDeque<OrderItem>> byProductId = new HashMap<>(current.size() * 2);
+        for (OrderItem item : current) {
+            if (item.getId() != null) {
+                byId.put(item.getId(), item);
+            }
+            byProductId.computeIfAbsent(item.getProductId(), key -> new ArrayDeque<>(1)).add(item);
+        }
+
+        Set<OrderItem> kept = Collections.newSetFromMap(new IdentityHashMap<>(current.size() * 2));
+        // id ile gelenler önce işaretlenir ki productId eşlemesi onları tekrar sahiplenmesin
+        for (OrderItem item : incoming) {
+            OrderItem existing = item.getId() == null ? null : byId.get(item.getId());
+            if (existing != null) {
+                kept.add(existing);
+            }
+        }
+
+        List<OrderItem> toAdd = new ArrayList<>();
+        for (OrderItem item : incoming) {
+            OrderItem existing = item.getId() == null ? null : byId.get(item.getId());
+            if (existing == null) {
+                existing = claimByProductId(byProductId.get(item.getProductId()), kept);
+            }
+            if (existing == null) {
+                toAdd.add(item);
+            } else if (existing.getQuantity() != item.getQuantity()) {
+                diff.quantityChanged.add(new OrderItemDelta(existing.getId(), existing.getProductId(), existing.getQuantity(), item.getQuantity()));
+                existing.setQuantity(item.getQuantity());
+            }
+        }
+
+        current.removeIf(item -> {
+            if (kept.contains(item)) {
+                return false;
+            }
+            diff.removed.add(new OrderItemDelta(item.getId(), item.getProductId(), item.getQuantity(), 0));
+            item.setOrder(null);
+            return true;
+        });
+
+        for (OrderItem item : toAdd) {
+            order.addItem(new OrderItem(item.getProductId(), item.getQuantity()));
+            diff.added.add(new OrderItemDelta(null, item.getProductId(), 0, item.getQuantity()));
+        }
+        return diff;
+    }
+
+    // Her aday en fazla bir kez kuyruktan çıkar, toplam maliyet doğrusal kalır
+    private static OrderItem claimByProductId(ArrayDeque<OrderItem> candidates, Set<OrderItem> kept) {
+        while (candidates != null && !candidates.isEmpty()) {
+            OrderItem candidate = candidates.poll();
+            if (kept.add(candidate)) {
+                return candidate;
+            }
+        }
+        return null;
+    }
+
+    public boolean isEmpty() {
+        return added.isEmpty() && removed.isEmpty() && quantityChanged.isEmpty();
+    }
+
+    public List<OrderItemDelta> getAdded() { return added; }
+    public List<OrderItemDelta> getRemoved() { return removed; }
+    public List<OrderItemDelta> getQuantityChanged() { return quantityChanged; }
+}
@@ -0,0 +1,132 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.logger.LoggerService;
+import com.example.orderservice.messaging.event.InventoryReply;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.repository.OrderRepository;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Sipariş oluşturulduktan sonraki akışı yöneten saga.
+ *
+ * POST /orders siparişi CREATED olarak hemen döner; productservice stok ayırınca veya
+ * ayıramayınca bir cevap event'i yollar ve sipariş burada bir sonraki duruma geçer.
+ * Geçişler önceden hesaplanmış bir tablodan okunur: tabloda karşılığı olmayan cevaplar
+ * (tekrar teslim edilen, iptal edilmiş siparişe geç gelen, bilinmeyen sipariş) etkisiz kalır,
+ * böylece aynı cevabın birden fazla işlenmesi sonucu değiştirmez.
+ *
+ * Cevaplar batch halinde işlenir: batch'teki siparişler tek sorguda yüklenir ve değişenler
+ * commit'te JDBC batch update ile yazılır. Durum geçişleri kullanıcı özetlerine de aynı
+ * transaction'da, kullanıcı başına tek güncelleme olarak yansır.
+ */
+@Component
+public class OrderSaga {
+
+    public enum Event {
+        STOCK_RESERVED,
+        STOCK_INSUFFICIENT;
+
+        static Event from(String type) {
+            return switch (type) {
+                case InventoryReply.STOCK_RESERVED -> STOCK_RESERVED;
+                case InventoryReply.STOCK_INSUFFICIENT -> STOCK_INSUFFICIENT;
+                default -> null;
+            };
+        }
+    }
+
+    private static final Map<OrderStatus, Map<Event, OrderStatus>> TRANSITIONS = new EnumMap<>(OrderStatus.class);
+
+    static {
+        for (OrderStatus status : OrderStatus.values()) {
+            TRANSITIONS.put(status, new EnumMap<>(Event.class));
+        }
+        TRANSITIONS.get(OrderStatus.CREATED).put(Event.STOCK_RESERVED, OrderStatus.PROCESSING);
+        TRANSITIONS.get(OrderStatus.CREATED).put(Event.STOCK_INSUFFICIENT, OrderStatus.FAILED);
+    }
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private OrderCache orderCache;
+
+    @Autowired
+    private OptimisticWriteExecutor writeExecutor;
+
+    @Autowired
+    private OrderSummaryService orderSummaryService;
+
+    @Autowired
+    private LoggerService logger;
+
+    private final MeterRegistry registry;
+    private final DistributionSummary batchSizes;
+
+    public OrderSaga(MeterRegistry registry) {
+        this.registry = registry;
+        this.batchSizes = DistributionSummary.builder("orders.saga.batch.size")
+                .description("Inventory replies processed per batch")
+                .register(registry);
+    }
+
+    public static OrderStatus next(OrderStatus current, Event event) {
+        return current == null || event == null ? null : TRANSITIONS.get(current).get(event);
+    }
+
+    /**
+     * Bir batch cevabı tek transaction'da uygular ve durumu değişen sipariş sayısını döner.
+     * Kullanıcı aynı anda siparişi iptal ederse batch optimistic locking ile tekrar denenir.
+     */
+    public int apply(List<InventoryReply> replies) {
+        if (replies.isEmpty()) {
+            return 0;
+        }
+        batchSizes.record(replies.size());
+        int applied = writeExecutor.execute("saga", () -> {
+            Set<Long> orderIds = new LinkedHashSet<>();
+            for (InventoryReply reply : replies) {
+                orderIds.add(reply.orderId());
+            }
+            Map<Long, Order> orders = new HashMap<>();
+            for (Order order : orderRepository.findAllById(orderIds)) {
+                orders.put(order.getId(), order);
+            }
+
+            int transitions = 0;
+            OrderSummaryChanges summaryChanges = new OrderSummaryChanges();
+            for (InventoryReply reply : replies) {
+                Event event = Event.from(reply.type());
+                Order order = orders.get(reply.orderId());
+                OrderStatus next = order == null ? null : next(order.getStatus(), event);
+                if (next == null) {
+                    continue;
+                }
+                if (next == OrderStatus.FAILED) {
+                    logger.atWarn().addKeyValue("orderId", order.getId()).log("Order failed: {}", reply.reason());
+                }
+                summaryChanges.statusChanged(order.getUserId(), order.getStatus(), next);
+                order.setStatus(next);
+                orderCache.invalidate(order.getId());
+                transitions++;
+            }
+            orderSummaryService.apply(summaryChanges);
+            return transitions;
+        });
+        // Tekrar denenen batch'ler iki kez sayılmasın diye metrikler transaction dışında
+        registry.counter("orders.saga.replies", "result", "applied").increment(applied);
+        registry.counter("orders.saga.replies", "result", "ignored").increment(replies.size() - applied);
+        return applied;
+    }
+}
@@ -1,195 +1,349 @@
 package com.example.orderservice.service;
 
+import com.example.orderservice.configuration.RabbitQueue;
+import com.example.orderservice.diagnostics.OrderPersistEvent;
 import com.example.orderservice.model.Order;
 import com.example.orderservice.model.OrderItem;
 import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.model.UserOrderSummary;
 import com.example.orderservice.logger.LoggerService;
+import com.example.orderservice.dto.CursorPage;
+import com.example.orderservice.dto.OrderItemDelta;
+import com.example.orderservice.dto.OrderStatusView;
 import com.example.orderservice.dto.OrderUpdatedDTO;
+import com.example.orderservice.exception.InvalidCursorException;
+import com.example.orderservice.exception.InvalidTransitionException;
+import com.example.orderservice.repository.ArchivedOrderRepository;
 import com.example.orderservice.repository.OrderRepository;
-import com.example.orderservice.messaging.OrderPublisher;
+import com.example.orderservice.messaging.OrderEventOutbox;
+import com.example.orderservice.messaging.event.OrderEvent;
+import com.example.orderservice.messaging.event.OrderItemAddedEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.core.JsonProcessingException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 
 import java.util.*;
-import java.util.stream.Collectors;
 import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 @Service
 public class OrderService {
 
     @Autowired
-    private OrderPublisher orderPublisher;
+    private OrderEventOutbox orderEventOutbox;
 
     @Autowired
     private OrderRepository orderRepository;
 
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private OrderCache orderCache;
+
+    @Autowired
+    private OptimisticWriteExecutor writeExecutor;
+
+    @Autowired
+    private UserDirectory userDirectory;
+
+    @Autowired
+    private OrderSummaryService orderSummaryService;
+
     @Autowired
     private LoggerService logger;
 
-    private ObjectMapper mapper = new ObjectMapper();
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private static final int MAX_CURSOR_PAGE_SIZE = 500;
+    private static final int BULK_CHUNK_SIZE = 500;
 
     public List<Order> getOrdersByUserId(String userId) {
-        logger.info("order getting by user id", userId);
-        return orderRepository.findByUserId(userId);
+        logger.info("order getting by user id: {}", userId);
+        userDirectory.requireActive(userId);
+        return orderRepository.findWithItemsByUserId(userId);
     }
 
+    /**
+     * Kullanıcının siparişlerini tek tek consumer'a verir; liste oluşturulmaz.
+     * Her sipariş işlendikten sonra persistence context'ten çıkarılır, bellek kullanımı
+     * sipariş sayısından bağımsız kalır.
+     */
+    public void streamOrdersByUserId(String userId, Consumer<Order> consumer) {
+        logger.info("orders streaming by user id: {}", userId);
+        readOnlyTransaction().executeWithoutResult(status -> {
+            try (Stream<Order> orders = orderRepository.streamWithItemsByUserId(userId)) {
+                orders.forEach(order -> {
+                    consumer.accept(order);
+                    entityManager.detach(order);
+                });
+            }
+        });
+    }
+
+    // Sabit sayıda sorgu: id sayfası + count + item'larla birlikte siparişler
     public Page<Order> getAllOrders(int page, int size) {
         logger.info("all orders getting !");
-        return orderRepository.findAll(PageRequest.of(page, size));
+        Sort sort = Sort.by("id");
+        Page<Long> ids = orderRepository.findIds(PageRequest.of(page, size, sort));
+        if (ids.isEmpty()) {
+            return new PageImpl<>(List.of(), ids.getPageable(), ids.getTotalElements());
+        }
+        List<Order> orders = orderRepository.findWithItemsByIdIn(ids.getContent(), sort);
+        return new PageImpl<>(orders, ids.getPageable(), ids.getTotalElements());
+    }
+
+    /**
+     * Keyset sayfalama: cursor'daki son id'den sonrasını seek eder, OFFSET taraması yapmaz.
+     * Toplam sayı sadece includeTotal istendiğinde hesaplanır. Cursor kendi status filtresini taşır;
+     * istekte farklı bir status gelirse cursor geçersiz sayılır.
+     */
+    public CursorPage<Order> getOrdersAfter(String cursor, int size, OrderStatus status, boolean includeTotal) {
+        OrderCursor position = cursor == null || cursor.isEmpty() ? new OrderCursor(0, status) : OrderCursor.decode(cursor);
+        if (status != null && status != position.getStatus()) {
+            throw new InvalidCursorException("Cursor does not match status filter " + status + ": " + cursor);
+        }
+        OrderStatus filter = position.getStatus();
+        int limit = Math.max(1, Math.min(size, MAX_CURSOR_PAGE_SIZE));
+
+        // Bir fazlasını okuyup sonraki sayfa olup olmadığını count'suz anlıyoruz
+        List<Long> ids = filter == null
+                ? orderRepository.findIdsAfter(position.getAfterId(), Limit.of(limit + 1))
+                : orderRepository.findIdsByStatusAfter(filter, position.getAfterId(), Limit.of(limit + 1));
+        boolean hasNext = ids.size() > limit;
+        if (hasNext) {
+            ids = ids.subList(0, limit);
+        }
+        List<Order> orders = ids.isEmpty() ? List.of() : orderRepository.findWithItemsByIdIn(ids, Sort.by("id"));
+        String nextCursor = hasNext ? new OrderCursor(ids.get(ids.size() - 1), filter).encode() : null;
+        Long total = includeTotal ? (filter == null ? orderRepository.count() : orderRepository.countByStatus(filter)) : null;
+        return new CursorPage<>(orders, nextCursor, total);
+    }
+
+    private TransactionTemplate readOnlyTransaction() {
+        TransactionTemplate template = new TransactionTemplate(transactionManager);
+        template.setReadOnly(true);
+        return template;
+    }
+
+    public Optional<UserOrderSummary> getOrderSummaryByUserId(String userId) {
+        userDirectory.requireActive(userId);
+        return orderSummaryService.getSummary(userId);
     }
 
     public Optional<Order> getOrderById(Long orderId) {
-        logger.info("order getting by id", orderId);
-        return orderRepository.findById(orderId);
+        logger.info("order getting by id: {}", orderId);
+        return orderCache.get(orderId);
     }
 
     public Optional<OrderStatus> getOrderStatusByOrderId(Long orderId) {
-        logger.info("order status getting by order id", orderId);
-        return orderRepository.findById(orderId).map(Order::getStatus);
+        logger.info("order status getting by order id: {}", orderId);
+        return getOrderStatusView(orderId).map(OrderStatusView::getStatus);
     }
 
+    // Canlı tabloda olmayan sipariş arşivde aranır; arşivdeki version değişmediği için ETag sabit kalır
+    public Optional<OrderStatusView> getOrderStatusView(Long orderId) {
+        return orderRepository.findStatusById(orderId).or(() -> archivedOrderRepository.findStatusById(orderId));
+    }
+
+    @Transactional
     public Order createOrder(Order order) {
+        userDirectory.requireActive(order.getUserId());
         order.setStatus(OrderStatus.CREATED);
         logger.info("order creating !");
+        OrderPersistEvent persistEvent = new OrderPersistEvent();
+        persistEvent.begin();
         Order createdOrder = orderRepository.save(order);
-
-        try {
-            String json = mapper.writeValueAsString(createdOrder);
-            orderPublisher.publishOrderCreated(json);
-        } catch (JsonProcessingException e) {
-            e.printStackTrace();
-            logger.error("Failed to publish order created event with order id: " + createdOrder.getId(), e);        }
-
+        // Insert'ler commit'e kalmasın; JFR event'i sadece id atamasını değil order + item insert'lerini ölçsün
+        entityManager.flush();
+        persistEvent.commit(createdOrder.getId(), createdOrder.getItems().size());
+        orderEventOutbox.enqueue(RabbitQueue.ORDER_CREATED, createdOrder.getId(), OrderEvent.from(createdOrder));
+        orderSummaryService.apply(new OrderSummaryChanges().added(createdOrder));
         return createdOrder;
     }
 
+    /**
+     * Siparişleri tek transaction'da toplu oluşturur. Sequence id'ler sayesinde order ve item
+     * insert'leri JDBC batch olarak gider; her parçadan sonra flush + clear yapılarak
+     * persistence context büyümez. Parçanın order.created event'leri tek outbox kaydına paketlenir.
+     */
+    @Transactional
+    public List<Order> createOrders(List<Order> orders) {
+        logger.info("orders creating in bulk: {}", orders.size());
+        orders.stream().map(Order::getUserId).distinct().forEach(userDirectory::requireActive);
+        List<Order> createdOrders = new ArrayList<>(orders.size());
+        OrderSummaryChanges summaryChanges = new OrderSummaryChanges();
+        for (int from = 0; from < orders.size(); from += BULK_CHUNK_SIZE) {
+            List<Order> chunk = orders.subList(from, Math.min(from + BULK_CHUNK_SIZE, orders.size()));
+            chunk.forEach(order -> order.setStatus(OrderStatus.CREATED));
+            List<Order> saved = orderRepository.saveAll(chunk);
+            orderEventOutbox.enqueuePacked(RabbitQueue.ORDER_CREATED, saved.get(0).getId(),
+                    saved.stream().map(OrderEvent::from).toList());
+            saved.forEach(summaryChanges::added);
+            entityManager.flush();
+            entityManager.clear();
+            createdOrders.addAll(saved);
+        }
+        // Kullanıcı başına tek özet güncellemesi
+        orderSummaryService.apply(summaryChanges);
+        return createdOrders;
+    }
+
     public Optional<Order> addOrderItemToOrder(Long orderId, OrderItem newItem){
-        Optional <Order> optionalOrder = orderRepository.findById(orderId);
-
-        if (optionalOrder.isPresent()) {
-            Order order = optionalOrder.get();
-            order.addItem(newItem);
-            Order itemAddedOrder = orderRepository.save(order);
-            try{
-                String orderItemJson = mapper.writeValueAsString(newItem);
-                orderPublisher.publishOrderItemAdded(orderItemJson);
-            }
-            catch (Exception e) {
-                logger.error("Failed to publish orderItem added event with orderItem id: " + newItem.getId(), e);
+        return writeExecutor.execute("addItem", () -> {
+            Optional <Order> optionalOrder = orderRepository.findForUpdateById(orderId);
+
+            if (optionalOrder.isPresent()) {
+                Order order = optionalOrder.get();
+                requireHoldsStock(order);
+                orderCache.invalidate(orderId);
+                // Her denemede yeni kopya: başarısız bir denemenin id atadığı nesne tekrar kullanılmaz
+                order.addItem(new OrderItem(newItem.getProductId(), newItem.getQuantity()));
+                Order itemAddedOrder = orderRepository.saveAndFlush(order);
+                OrderItem savedItem = itemAddedOrder.getItems().get(itemAddedOrder.getItems().size() - 1);
+                orderEventOutbox.enqueue(RabbitQueue.ORDER_ITEM_ADDED, orderId, OrderItemAddedEvent.from(savedItem));
+                orderSummaryService.apply(new OrderSummaryChanges().itemsChanged(order.getUserId(), 1, savedItem.getQuantity()));
+                logger.info("Item added to order: {}", orderId);
+                return Optional.of(itemAddedOrder);
             }
-            logger.info("Item added to order: " + orderId);
-            return Optional.of(itemAddedOrder);
-        }
-        logger.warn("Order item not found : " + orderId);
-        return Optional.empty();
+            logger.warn("Order item not found : {}", orderId);
+            return Optional.empty();
+        });
     }
 
     public Optional<Order> updateOrder(Long orderId, List<OrderItem> updatedItems) {
-        Optional<Order> optionalExistingOrder = orderRepository.findById(orderId);
-        if (optionalExistingOrder.isPresent()) {
-            Order existingOrder = optionalExistingOrder.get();
-            List<OrderItem> oldItems = existingOrder.getItems().stream()
-                    .map(item -> new OrderItem(item.getProductId(), item.getQuantity()))
-                    .collect(Collectors.toList());
-            List<OrderItem> currentItems = existingOrder.getItems();
-            currentItems.removeIf(item -> updatedItems.stream()
-                    .noneMatch(u -> u.getId().equals(item.getId())));
-            for (OrderItem updatedItem : updatedItems) {
-                Optional<OrderItem> existingItemOpt = currentItems.stream()
-                        .filter(i -> i.getId().equals(updatedItem.getId()))
-                        .findFirst();
-                if (existingItemOpt.isPresent()) {
-                    OrderItem existingItem = existingItemOpt.get();
-                    existingItem.setQuantity(updatedItem.getQuantity());
-                } else {
-                    currentItems.add(updatedItem);
+        return writeExecutor.execute("update", () -> {
+            Optional<Order> optionalExistingOrder = orderRepository.findForUpdateById(orderId);
+            if (optionalExistingOrder.isPresent()) {
+                Order existingOrder = optionalExistingOrder.get();
+                requireHoldsStock(existingOrder);
+                orderCache.invalidate(orderId);
+                OrderItemDiff diff = OrderItemDiff.apply(existingOrder, updatedItems);
+                orderRepository.save(existingOrder);
+                if (!diff.isEmpty()) {
+                    OrderUpdatedDTO updatedOrderDto = new OrderUpdatedDTO.Builder()
+                            .orderId(existingOrder.getId())
+                            .userId(existingOrder.getUserId())
+                            .status(existingOrder.getStatus())
+                            .added(diff.getAdded())
+                            .removed(diff.getRemoved())
+                            .quantityChanged(diff.getQuantityChanged())
+                            .build();
+                    orderEventOutbox.enqueue(RabbitQueue.ORDER_UPDATED, orderId, updatedOrderDto);
+                    orderSummaryService.apply(summaryChanges(existingOrder.getUserId(), diff));
                 }
+                return Optional.of(existingOrder);
             }
-            orderRepository.save(existingOrder);
-            OrderUpdatedDTO updatedOrderDto = new OrderUpdatedDTO.Builder()
-                    .orderId(existingOrder.getId())
-                    .userId(existingOrder.getUserId())
-                    .status(existingOrder.getStatus())
-                    .existingItems(oldItems)
-                    .updatedItems(updatedItems)
-                    .build();
-            try {
-                String orderItemJson = mapper.writeValueAsString(updatedOrderDto);
-                orderPublisher.publishOrderUpdated(orderItemJson);
-            } catch (Exception e) {
-                logger.error("Failed to publish order updated event", updatedOrderDto, e);
-            }
-            return Optional.of(existingOrder);
-        }
-        logger.warn("Order not found: " + orderId);
-        return Optional.empty();
+            logger.warn("Order not found: {}", orderId);
+            return Optional.empty();
+        });
     }
 
     public Optional<Order> cancelOrder(Long orderId) {
-        Optional<Order> optionalOrder = orderRepository.findById(orderId);
-        if (optionalOrder.isPresent()) {
-            Order order = optionalOrder.get();
-            order.setStatus(OrderStatus.CANCELED);
-            Order canceledOrder = orderRepository.save(order);
-            try{
-                String json = mapper.writeValueAsString(canceledOrder);
-                orderPublisher.publishOrderCanceled(json);
-            }
-            catch(Exception e) {
-                logger.error("Failed to publish order canceled event with order id: " + canceledOrder.getId() , e);
+        return writeExecutor.execute("cancel", () -> {
+            Optional<Order> optionalOrder = orderRepository.findForUpdateById(orderId);
+            if (optionalOrder.isPresent()) {
+                Order order = optionalOrder.get();
+                OrderStatus previousStatus = order.getStatus();
+                if (!OrderTransitions.isAllowed(previousStatus, OrderStatus.CANCELED)) {
+                    throw new InvalidTransitionException("Order " + orderId + " cannot be canceled from " + previousStatus);
+                }
+                orderCache.invalidate(orderId);
+                order.setStatus(OrderStatus.CANCELED);
+                Order canceledOrder = orderRepository.save(order);
+                orderEventOutbox.enqueue(RabbitQueue.ORDER_CANCELED, orderId, OrderEvent.from(canceledOrder));
+                orderSummaryService.apply(new OrderSummaryChanges()
+                        .statusChanged(order.getUserId(), previousStatus, OrderStatus.CANCELED));
+                logger.info("Order cancelled: {}", orderId);
+                return Optional.of(canceledOrder);
             }
-
-            logger.info("Order cancelled: " + orderId);
-            return Optional.of(canceledOrder);
-        }
-        logger.warn("Order not found: " + orderId);
-        return Optional.empty(); // sipariş bulunmazsa boş dön
+            logger.warn("Order not found: {}", orderId);
+            return Optional.empty(); // sipariş bulunmazsa boş dön
+        });
     }
 
     public Optional<Order> removeItemFromOrder(Long orderId, Long itemId) {
-        Optional<Order> optionalOrder = orderRepository.findById(orderId);
-        if (optionalOrder.isPresent()) {
-            Order order = optionalOrder.get();
-            OrderItem itemToRemove = order.getItems().stream()
-                    .filter(item -> item.getId().equals(itemId))
-                    .findFirst()
-                    .orElse(null);
-            if (itemToRemove != null) {
-                order.removeItem(itemToRemove);
-                logger.info("Item removed from order: " + itemId);
-                Order updatedOrder = orderRepository.save(order);
-                try {
-                    String json = mapper.writeValueAsString(updatedOrder);
-                    orderPublisher.publishOrderUpdated(json);
-                } catch (Exception e) {
-                    logger.error("Failed to publish order updated event with order id: " + updatedOrder.getId(), e);
+        return writeExecutor.execute("removeItem", () -> {
+            Optional<Order> optionalOrder = orderRepository.findForUpdateById(orderId);
+            if (optionalOrder.isPresent()) {
+                Order order = optionalOrder.get();
+                requireHoldsStock(order);
+                OrderItem itemToRemove = order.getItems().stream()
+                        .filter(item -> item.getId().equals(itemId))
+                        .findFirst()
+                        .orElse(null);
+                if (itemToRemove != null) {
+                    orderCache.invalidate(orderId);
+                    order.removeItem(itemToRemove);
+                    logger.info("Item removed from order: {}", itemId);
+                    Order updatedOrder = orderRepository.save(order);
+                    OrderUpdatedDTO updatedOrderDto = new OrderUpdatedDTO.Builder()
+                            .orderId(orderId)
+                            .userId(updatedOrder.getUserId())
+                            .status(updatedOrder.getStatus())
+                            .removed(List.of(new OrderItemDelta(itemToRemove.getId(), itemToRemove.getProductId(), itemToRemove.getQuantity(), 0)))
+                            .build();
+                    orderEventOutbox.enqueue(RabbitQueue.ORDER_UPDATED, orderId, updatedOrderDto);
+                    orderSummaryService.apply(new OrderSummaryChanges()
+                            .itemsChanged(updatedOrder.getUserId(), -1, -itemToRemove.getQuantity()));
+                    return Optional.of(updatedOrder);
+                } else {
+                    logger.warn("Item not found in order: {}", itemId);
+                    return Optional.empty();
                 }
-                return Optional.of(updatedOrder);
-            } else {
-                logger.warn("Item not found in order: " + itemId);
-                return Optional.empty();
             }
-        }
-        return Optional.empty();
+            return Optional.empty();
+        });
     }
 
     public boolean removeOrderById(Long orderId){
-        Optional<Order> optionalDeletingOrder = orderRepository.findById(orderId);
-        try{
-            String json = mapper.writeValueAsString(optionalDeletingOrder.get());
-            orderPublisher.publishOrderDeleted(json);
-        }
-        catch (Exception e) {
-            logger.error("Failed to publish order delete event with order id:" + optionalDeletingOrder.get().getId() , e);
+        // Eşzamanlı bir güncelleme ile yarışan silme version çakışması alır; diğer yazmalar gibi tekrar denenir
+        return writeExecutor.execute("delete", () -> {
+            Optional<Order> optionalDeletingOrder = orderRepository.findById(orderId);
+            if (optionalDeletingOrder.isPresent()) {
+                orderCache.invalidate(orderId);
+                OrderEvent deletedEvent = OrderEvent.from(optionalDeletingOrder.get());
+                orderEventOutbox.enqueue(RabbitQueue.ORDER_DELETED, orderId,
+                        OrderTransitions.holdsStock(deletedEvent.status()) ? deletedEvent : deletedEvent.withoutItems());
+                OrderSummaryChanges summaryChanges = new OrderSummaryChanges().removed(optionalDeletingOrder.get());
+                orderRepository.delete(optionalDeletingOrder.get());
+                orderSummaryService.apply(summaryChanges);
+                return true;
+            }
+            return false;
+        });
+    }
+
+    // Item değişiklikleri productservice'te stoğa yansır; stoğu rezerve olmayan (FAILED, CANCELED, ...)
+    // siparişte düşülen stok order.deleted ile de geri eklenmez
+    private static void requireHoldsStock(Order order) {
+        if (!OrderTransitions.holdsStock(order.getStatus())) {
+            throw new InvalidTransitionException("Items of order " + order.getId() + " cannot be changed in status " + order.getStatus());
         }
-        if (optionalDeletingOrder.isPresent()) {
-            orderRepository.delete(optionalDeletingOrder.get());
-            return true;
+    }
+
+    private static OrderSummaryChanges summaryChanges(String userId, OrderItemDiff diff) {
+        long items = diff.getAdded().size() - diff.getRemoved().size();
+        long quantity = 0;
+        for (List<OrderItemDelta> deltas : List.of(diff.getAdded(), diff.getRemoved(), diff.getQuantityChanged())) {
+            for (OrderItemDelta delta : deltas) {
+                quantity += delta.getQuantityDelta();
+            }
         }
-        return false;
+        return new OrderSummaryChanges().itemsChanged(userId, items, quantity);
     }
 }
@@ -0,0 +1,104 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Bir transaction'daki sipariş değişikliklerinin kullanıcı özetlerine yansıyacak farkları.
+ *
+ * Yazma yolları farkları burada biriktirir, {@link OrderSummaryService#apply} hepsini transaction
+ * sonunda kullanıcı başına tek atomik update olarak yazar. Kullanıcılar id sırasıyla tutulur;
+ * birden fazla özete yazan transaction'lar (saga batch'i, toplu işlemler) satır kilitlerini hep aynı sırada alır.
+ */
+public final class OrderSummaryChanges {
+
+    private final Map<String, Delta> deltas = new TreeMap<>();
+
+    public OrderSummaryChanges added(Order order) {
+        return count(order, 1);
+    }
+
+    public OrderSummaryChanges removed(Order order) {
+        return count(order, -1);
+    }
+
+    public OrderSummaryChanges statusChanged(String userId, OrderStatus from, OrderStatus to) {
+        if (userId != null && from != to) {
+            Delta delta = delta(userId);
+            if (from != null) delta.orders[from.ordinal()]--;
+            if (to != null) delta.orders[to.ordinal()]++;
+        }
+        return this;
+    }
+
+    public OrderSummaryChanges itemsChanged(String userId, long items, long quantity) {
+        if (userId != null) {
+            Delta delta = delta(userId);
+            delta.items += items;
+            delta.quantity += quantity;
+        }
+        return this;
+    }
+
+    public boolean isEmpty() {
+        return deltas.values().stream().allMatch(Delta::isEmpty);
+    }
+
+    Map<String, Delta> deltas() {
+        return deltas;
+    }
+
+    private OrderSummaryChanges count(Order order, int sign) {
+        String userId = order.getUserId();
+        if (userId == null) {
+            return this;
+        }
+        Delta delta = delta(userId);
+        if (order.getStatus() != null) {
+            delta.orders[order.getStatus().ordinal()] += sign;
+        }
+        for (OrderItem item : order.getItems()) {
+            delta.items += sign;
+            delta.quantity += (long) sign * item.getQuantity();
+        }
+        return this;
+    }
+
+    private Delta delta(String userId) {
+        return deltas.computeIfAbsent(userId, key -> new Delta());
+    }
+
+    static final class Delta {
+        private final long[] orders = new long[OrderStatus.values().length];
+        private long items;
+        private long quantity;
+
+        boolean isEmpty() {
+            if (items != 0 || quantity != 0) {
+                return false;
+            }
+            for (long count : orders) {
+                if (count != 0) {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        long orders(OrderStatus status) {
+            return orders[status.ordinal()];
+        }
+
+        long items() {
+            return items;
+        }
+
+        long quantity() {
+            return quantity;
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.UserOrderTotalsView;
+import com.example.orderservice.logger.LoggerService;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.model.UserOrderSummary;
+import com.example.orderservice.repository.ArchivedOrderRepository;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.repository.UserOrderSummaryRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Kullanıcı başına sipariş özeti (user_order_summary) read model'i.
+ *
+ * Siparişi değiştiren her transaction farkları {@link OrderSummaryChanges} ile toplar ve
+ * sonunda {@link #apply} ile yazar; özet, siparişlerle aynı transaction'da commit olur.
+ * Farklar satır okunmadan "count = count + :delta" şeklinde tek bir update ile eklenir; select ...
+ * for update alınmaz, siparişlerdeki optimistic locking özet yüzünden kullanıcı başına sıraya girmez.
+ * Update'in satır kilidi transaction sonuna kadar sürdüğünden kilidi kısa tutmak için sipariş satırları
+ * önce flush edilir, özet en son ve kullanıcı id sırasıyla yazılır; birden fazla kullanıcıya yazan
+ * transaction'lar birbirini deadlock'a sokmaz.
+ *
+ * Okuma tek satırlık primary key sorgusudur. Herhangi bir sebeple (elle yapılan SQL, hata)
+ * oluşan sapmalar {@link #rebuildAll} ile giderilir: her kullanıcının özeti kilitlenip
+ * canlı ve arşivlenmiş siparişlerinden yeniden hesaplanır, farklar orders.summary.rebuild.corrections metriğine yazılır.
+ */
+@Service
+public class OrderSummaryService {
+
+    // Eşzamanlı ilk siparişlerde satır bir kez oluşur; çakışan insert sessizce atlanır
+    private static final String INSERT_IF_ABSENT = "insert into UserOrderSummary (userId, createdOrders, paidOrders, "
+            + "processingOrders, shippedOrders, deliveredOrders, canceledOrders, failedOrders, completedOrders, "
+            + "itemCount, totalQuantity, updatedAt) values (:userId, 0, 0, 0, 0, 0, 0, 0, 0, 0, 0, :now) on conflict do nothing";
+
+    private static final String ADD_DELTA = addDeltaQuery();
+
+    private static final int ITEMS = OrderStatus.values().length;
+    private static final int QUANTITY = ITEMS + 1;
+
+    @Autowired
+    private UserOrderSummaryRepository summaryRepository;
+
+    @Autowired
+    private OrderRepository orderRepository;
+
+    @Autowired
+    private ArchivedOrderRepository archivedOrderRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private LoggerService logger;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Value("${orders.summary.rebuild.batch-size:500}")
+    private int rebuildBatchSize;
+
+    private final Timer rebuildTimer;
+    private final Counter rebuiltUsers;
+    private final Counter corrections;
+
+    public OrderSummaryService(MeterRegistry registry) {
+        this.rebuildTimer = Timer.builder("orders.summary.rebuild")
+                .description("Time to recompute all user order summaries")
+                .register(registry);
+        this.rebuiltUsers = Counter.builder("orders.summary.rebuild.users")
+                .description("User summaries recomputed by the rebuild job")
+                .register(registry);
+        this.corrections = Counter.builder("orders.summary.rebuild.corrections")
+                .description("User summaries that had drifted from the orders table")
+                .register(registry);
+    }
+
+    public Optional<UserOrderSummary> getSummary(String userId) {
+        return summaryRepository.findById(userId);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void apply(OrderSummaryChanges changes) {
+        if (changes.isEmpty()) {
+            return;
+        }
+        // Repository üzerinden flush: version çakışması OptimisticLockingFailureException olarak gelsin
+        summaryRepository.flush();
+        Instant now = Instant.now();
+        for (Map.Entry<String, OrderSummaryChanges.Delta> entry : changes.deltas().entrySet()) {
+            if (entry.getValue().isEmpty()) {
+                continue;
+            }
+            if (addDelta(entry.getKey(), entry.getValue(), now) == 0) {
+                // Kullanıcının ilk siparişi: satır oluşturulur, eşzamanlı ilk siparişlerde biri atlanır
+                insertIfAbsent(entry.getKey(), now);
+                addDelta(entry.getKey(), entry.getValue(), now);
+            }
+        }
+    }
+
+    /**
+     * Tüm özetleri siparişlerden yeniden hesaplar; her kullanıcı kendi transaction'ındadır.
+     * Düzeltilen özet sayısını döner.
+     */
+    @Scheduled(cron = "${orders.summary.rebuild.cron:0 30 3 * * *}")
+    public int rebuildAll() {
+        long start = System.nanoTime();
+        int users = 0;
+        int corrected = 0;
+        String afterUserId = "";
+        List<String> userIds;
+        do {
+            userIds = orderRepository.findUserIdsAfter(afterUserId, Limit.of(rebuildBatchSize));
+            for (String userId : userIds) {
+                users++;
+                if (rebuild(userId)) {
+                    corrected++;
+                }
+            }
+            if (!userIds.isEmpty()) {
+                afterUserId = userIds.get(userIds.size() - 1);
+            }
+        } while (userIds.size() == rebuildBatchSize);
+        for (String userId : summaryRepository.findUserIdsWithoutOrders()) {
+            users++;
+            if (rebuild(userId)) {
+                corrected++;
+            }
+        }
+        rebuildTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        logger.info("🧮 Order summaries rebuilt for {} users, {} corrected", users, corrected);
+        return corrected;
+    }
+
+    /**
+     * Kullanıcının özetini kilitleyip siparişlerinden yeniden hesaplar, sapma varsa true döner.
+     * Kilit toplamlar okunmadan önce alınır: commit'i bekleyen yazmalar ya toplama dahil olur
+     * ya da farkını bu transaction bittikten sonra uygular, hiçbiri iki kez sayılmaz.
+     */
+    public boolean rebuild(String userId) {
+        Boolean drifted = transactionTemplate.execute(status -> {
+            UserOrderSummary summary = lock(userId, Instant.now());
+            long[] expected = totals(userId);
+            boolean drift = !Arrays.equals(expected, totals(summary));
+            // Canlı ve arşiv tabloları ayrı sorgularla okunur; arada bir arşivleme batch'i commit olduysa
+            // sipariş iki kez ya da hiç sayılmamış olabilir. İkinci okuma tutmazsa düzeltme sonraki tura kalır
+            if (drift && !Arrays.equals(expected, totals(userId))) {
+                return false;
+            }
+            if (Arrays.stream(expected).allMatch(value -> value == 0)) {
+                summaryRepository.delete(summary);
+                return drift;
+            }
+            if (drift) {
+                for (OrderStatus orderStatus : OrderStatus.values()) {
+                    summary.setOrders(orderStatus, expected[orderStatus.ordinal()]);
+                }
+                summary.setItemCount(expected[ITEMS]);
+                summary.setTotalQuantity(expected[QUANTITY]);
+                summary.setUpdatedAt(Instant.now());
+            }
+            return drift;
+        });
+        rebuiltUsers.increment();
+        if (Boolean.TRUE.equals(drifted)) {
+            corrections.increment();
+            logger.atWarn().addKeyValue("userId", userId).log("Order summary drift corrected");
+            return true;
+        }
+        return false;
+    }
+
+    // Durum başına sipariş sayıları, ardından item satırı ve adet toplamı
+    private long[] totals(String userId) {
+        long[] totals = new long[QUANTITY + 1];
+        // Arşive taşınan siparişler de kullanıcının siparişidir, özette kalır
+        List<UserOrderTotalsView> rows = new ArrayList<>(orderRepository.findTotalsByUserId(userId));
+        rows.addAll(archivedOrderRepository.findTotalsByUserId(userId));
+        for (UserOrderTotalsView row : rows) {
+            if (row.getStatus() != null) {
+                totals[row.getStatus().ordinal()] += row.getOrders();
+            }
+            totals[ITEMS] += row.getItems();
+            totals[QUANTITY] += row.getQuantity();
+        }
+        return totals;
+    }
+
+    private static long[] totals(UserOrderSummary summary) {
+        long[] totals = new long[QUANTITY + 1];
+        for (OrderStatus status : OrderStatus.values()) {
+            totals[status.ordinal()] = summary.getOrders(status);
+        }
+        totals[ITEMS] = summary.getItemCount();
+        totals[QUANTITY] = summary.getTotalQuantity();
+        return totals;
+    }
+
+    private int addDelta(String userId, OrderSummaryChanges.Delta delta, Instant now) {
+        Query update = entityManager.createQuery(ADD_DELTA)
+                .setParameter("userId", userId)
+                .setParameter("items", delta.items())
+                .setParameter("quantity", delta.quantity())
+                .setParameter("now", now);
+        for (OrderStatus status : OrderStatus.values()) {
+            update.setParameter(countField(status), delta.orders(status));
+        }
+        return update.executeUpdate();
+    }
+
+    private void insertIfAbsent(String userId, Instant now) {
+        entityManager.createQuery(INSERT_IF_ABSENT)
+                .setParameter("userId", userId)
+                .setParameter("now", now)
+                .executeUpdate();
+    }
+
+    // Sadece rebuild için: toplamlar okunurken özete yazan transaction'lar beklesin
+    private UserOrderSummary lock(String userId, Instant now) {
+        Optional<UserOrderSummary> summary = summaryRepository.findForUpdateByUserId(userId);
+        if (summary.isPresent()) {
+            return summary.get();
+        }
+        insertIfAbsent(userId, now);
+        return summaryRepository.findForUpdateByUserId(userId).orElseThrow();
+    }
+
+    // "update UserOrderSummary s set s.createdOrders = s.createdOrders + :createdOrders, ..." (durum başına bir kolon)
+    private static String addDeltaQuery() {
+        StringBuilder hql = new StringBuilder("update UserOrderSummary s set ");
+        for (OrderStatus status : OrderStatus.values()) {
+            String field = countField(status);
+            hql.append("s.").append(field).append(" = s.").append(field).append(" + :").append(field).append(", ");
+        }
+        return hql.append("s.itemCount = s.itemCount + :items, s.totalQuantity = s.totalQuantity + :quantity, ")
+                .append("s.updatedAt = :now where s.userId = :userId")
+                .toString();
+    }
+
+    private static String countField(OrderStatus status) {
+        return status.name().toLowerCase(Locale.ROOT) + "Orders";
+    }
+}
@@ -0,0 +1,50 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.model.OrderStatus;
+
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * API'den (tekil iptal ve toplu işlemler) verilebilen durum geçişleri: hedef durum başına izin verilen
+ * kaynak durumlar. Saga'nın yönettiği PAID / PROCESSING / FAILED hedefleri burada yoktur, OrderSaga'dadır.
+ *
+ * İptal sadece stoğu hâlâ rezerve ya da rezervasyonu bekleyen siparişlere uygulanır; FAILED siparişin
+ * stoğu hiç düşülmediği için iptali productservice'te stoğu şişirirdi.
+ */
+final class OrderTransitions {
+
+    // productservice'in stoğunu düştüğü (ya da order.created ile düşeceği) durumlar
+    private static final Set<OrderStatus> HOLDS_STOCK = EnumSet.of(OrderStatus.CREATED, OrderStatus.PAID, OrderStatus.PROCESSING);
+
+    private static final Map<OrderStatus, Set<OrderStatus>> SOURCES = new EnumMap<>(Map.of(
+            OrderStatus.CANCELED, HOLDS_STOCK,
+            OrderStatus.SHIPPED, EnumSet.of(OrderStatus.PROCESSING),
+            OrderStatus.DELIVERED, EnumSet.of(OrderStatus.SHIPPED),
+            OrderStatus.COMPLETED, EnumSet.of(OrderStatus.DELIVERED)));
+
+    private OrderTransitions() {}
+
+    static boolean isTarget(OrderStatus status) {
+        return status != null && SOURCES.containsKey(status);
+    }
+
+    static Set<OrderStatus> sourcesOf(OrderStatus target) {
+        return target == null ? Set.of() : SOURCES.getOrDefault(target, Set.of());
+    }
+
+    static boolean isAllowed(OrderStatus from, OrderStatus to) {
+        return sourcesOf(to).contains(from);
+    }
+
+    /**
+     * Siparişin stoğu hâlâ rezerve mi. order.canceled / order.deleted event'leri item'ları sadece bu
+     * durumda taşır; productservice item'ların adetlerini stoğa geri ekler. İptal edilmiş siparişin stoğu
+     * zaten geri eklenmiştir, FAILED siparişinki hiç düşülmemiştir.
+     */
+    static boolean holdsStock(OrderStatus status) {
+        return status != null && HOLDS_STOCK.contains(status);
+    }
+}
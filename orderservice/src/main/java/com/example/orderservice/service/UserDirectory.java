@@ -0,0 +1,116 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.exception.UnknownUserException;
+import com.example.orderservice.messaging.event.UserEvent;
+import com.example.orderservice.model.UserProjection;
+import com.example.orderservice.repository.UserProjectionRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * userservice'e gitmeden kullanıcı doğrulaması yapan yerel kullanıcı projeksiyonu.
+ *
+ * Tablo OrderConsumer'ın batch listener'ları tarafından güncellenir; okumalar önce
+ * bellekteki cache'e bakar. Enforce modunda bilinmeyen kullanıcılar cache'lenmez: yeni kayıt
+ * olmuş bir kullanıcının event'i henüz işlenmediyse bir sonraki istekte tablo tekrar okunur.
+ *
+ * users.projection.enforce=false iken projeksiyonda olmayan kullanıcılar kabul edilir
+ * (projeksiyon öncesi kayıt olmuş kullanıcılar için); silinmiş kullanıcılar her zaman reddedilir.
+ */
+@Service
+public class UserDirectory {
+
+    private final UserProjectionRepository userProjectionRepository;
+    private final Cache<String, Optional<UserProjection>> cache;
+
+    @Value("${users.projection.enforce:false}")
+    private boolean enforce;
+
+    public UserDirectory(UserProjectionRepository userProjectionRepository, MeterRegistry registry,
+                         @Value("${users.cache.max-size:100000}") long maxSize,
+                         @Value("${users.cache.ttl-seconds:60}") long ttlSeconds) {
+        this.userProjectionRepository = userProjectionRepository;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats()
+                .build();
+        CaffeineCacheMetrics.monitor(registry, cache, "users");
+    }
+
+    public Optional<UserProjection> find(String userId) {
+        Optional<UserProjection> cached = cache.getIfPresent(userId);
+        if (cached != null) {
+            return cached;
+        }
+        Optional<UserProjection> user = userProjectionRepository.findById(userId);
+        if (user.isPresent() || !enforce) {
+            cache.put(userId, user);
+        }
+        return user;
+    }
+
+    /**
+     * Sipariş oluşturma ve kullanıcıya özel endpoint'ler için: kullanıcı silinmişse ya da
+     * enforce modunda hiç bilinmiyorsa UnknownUserException fırlatır.
+     */
+    public void requireActive(String userId) {
+        Optional<UserProjection> user = find(userId);
+        if (user.map(UserProjection::isDeleted).orElse(enforce)) {
+            throw new UnknownUserException(userId);
+        }
+    }
+
+    @Transactional
+    public void applyRegistered(List<UserEvent> events) {
+        apply(events, false);
+    }
+
+    @Transactional
+    public void applyDeleted(List<UserEvent> events) {
+        apply(events, true);
+    }
+
+    // Batch tek sorgu ile yüklenir, aynı kullanıcı için birden fazla event varsa sonuncusu geçerlidir
+    private void apply(List<UserEvent> events, boolean deleted) {
+        Map<String, UserEvent> latest = new LinkedHashMap<>();
+        for (UserEvent event : events) {
+            latest.put(event.userId(), event);
+        }
+        Map<String, UserProjection> users = new LinkedHashMap<>();
+        for (UserProjection existing : userProjectionRepository.findAllById(latest.keySet())) {
+            users.put(existing.getUserId(), existing);
+        }
+        Instant now = Instant.now();
+        for (UserEvent event : latest.values()) {
+            UserProjection user = users.computeIfAbsent(event.userId(), UserProjection::new);
+            user.setEmail(event.email());
+            user.setDeleted(deleted || user.isDeleted());
+            user.setUpdatedAt(now);
+        }
+        userProjectionRepository.saveAll(users.values());
+
+        // Commit'ten önce araya giren bir okuma eski hali cache'e koymuş olabilir
+        cache.invalidateAll(latest.keySet());
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCompletion(int status) {
+                cache.invalidateAll(latest.keySet());
+            }
+        });
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.service.OrderService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+// Test application.properties main'dekini gölgelediği için endpoint burada açılır
+@SpringBootTest(properties = "management.endpoints.web.exposure.include=prometheus")
+@AutoConfigureMockMvc
+@AutoConfigureObservability(tracing = false)
+class MetricsEndpointTests {
+
+	private static final String SECRET = "supersecret_supersecretkey12345678";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@AfterEach
+	void tearDown() {
+		orderRepository.deleteAll();
+	}
+
+	@Test
+	void prometheusScrapeHasHistogramsPerOperation() throws Exception {
+		Order order = new Order();
+		order.setUserId("7");
+		order.addItem(new OrderItem("p-1", 1));
+		Long orderId = orderService.createOrder(order).getId();
+
+		mockMvc.perform(get("/orders/status/" + orderId).header("Authorization", bearer()))
+				.andExpect(status().isOk());
+
+		String scrape = mockMvc.perform(get("/actuator/prometheus"))
+				.andExpect(status().isOk())
+				.andReturn().getResponse().getContentAsString();
+
+		assertThat(scrape)
+				.contains("http_server_requests_seconds_bucket{")
+				.contains("uri=\"/orders/status/{orderId}\"")
+				.contains("spring_data_repository_invocations_seconds_bucket{")
+				.contains("repository=\"OrderRepository\"")
+				.contains("jwt_verify_seconds_bucket{")
+				.contains("events_codec_seconds_bucket{")
+				.contains("publisher_confirm_latency_seconds_bucket{")
+				.contains("orders_consumer_batch_seconds_bucket{")
+				.contains("publisher_confirms_total{");
+	}
+
+	private String bearer() {
+		return "Bearer " + Jwts.builder()
+				.claim("id", 7)
+				.setExpiration(new Date(System.currentTimeMillis() + 60_000))
+				.signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+	}
+}
@@ -0,0 +1,165 @@
+package com.example.orderservice.controller;
+
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.repository.UserOrderSummaryRepository;
+import com.example.orderservice.service.OrderService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.delete;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.patch;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class OrderControllerTests {
+
+	private static final String SECRET = "supersecret_supersecretkey12345678";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private UserOrderSummaryRepository summaryRepository;
+
+	@AfterEach
+	void tearDown() {
+		orderRepository.deleteAll();
+		summaryRepository.deleteAll();
+	}
+
+	@Test
+	void statusEndpointAnswersIfNoneMatchWith304() throws Exception {
+		Long orderId = createOrder();
+
+		String etag = mockMvc.perform(get("/orders/status/" + orderId).header("Authorization", bearer()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.status").value("CREATED"))
+				.andExpect(jsonPath("$.items").doesNotExist())
+				.andReturn().getResponse().getHeader("ETag");
+
+		mockMvc.perform(get("/orders/status/" + orderId).header("Authorization", bearer()).header("If-None-Match", etag))
+				.andExpect(status().isNotModified())
+				.andExpect(content().string(""));
+
+		orderService.cancelOrder(orderId);
+
+		mockMvc.perform(get("/orders/status/" + orderId).header("Authorization", bearer()).header("If-None-Match", etag))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.status").value("CANCELED"))
+				.andExpect(header().exists("ETag"));
+	}
+
+	@Test
+	void statusOfUnknownOrderIs404() throws Exception {
+		mockMvc.perform(get("/orders/status/987654").header("Authorization", bearer()))
+				.andExpect(status().isNotFound());
+	}
+
+	@Test
+	void summaryEndpointReturnsCountsPerStatus() throws Exception {
+		createOrder();
+		Long canceled = createOrder();
+		orderService.cancelOrder(canceled);
+
+		mockMvc.perform(get("/orders/user/7/summary").header("Authorization", bearer()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.totalOrders").value(2))
+				.andExpect(jsonPath("$.ordersByStatus.CREATED").value(1))
+				.andExpect(jsonPath("$.ordersByStatus.CANCELED").value(1))
+				.andExpect(jsonPath("$.ordersByStatus.SHIPPED").value(0))
+				.andExpect(jsonPath("$.itemCount").value(2))
+				.andExpect(jsonPath("$.totalQuantity").value(2));
+
+		mockMvc.perform(get("/orders/user/no-orders/summary").header("Authorization", bearer()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.totalOrders").value(0));
+	}
+
+	@Test
+	void bulkEndpointsChangeStatusAndDelete() throws Exception {
+		Long first = createOrder();
+		Long second = createOrder();
+
+		// Id listesiyle toplu işlemler sadece admin içindir
+		mockMvc.perform(patch("/orders/status").header("Authorization", bearer())
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"ids\":[" + first + "],\"status\":\"CANCELED\"}"))
+				.andExpect(status().isForbidden());
+
+		mockMvc.perform(patch("/orders/status").header("Authorization", bearer(8, "admin"))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"ids\":[" + first + "," + second + "],\"status\":\"CANCELED\"}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.affected").value(2))
+				.andExpect(jsonPath("$.skippedIds").isEmpty());
+
+		// Saga'nın yönettiği durumlar toplu verilemez
+		mockMvc.perform(patch("/orders/status").header("Authorization", bearer(8, "admin"))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"ids\":[" + first + "],\"status\":\"PAID\"}"))
+				.andExpect(status().isBadRequest());
+
+		mockMvc.perform(delete("/orders").header("Authorization", bearer())
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"ids\":[" + first + "]}"))
+				.andExpect(status().isForbidden());
+
+		mockMvc.perform(delete("/orders").header("Authorization", bearer(8, "admin"))
+						.contentType(MediaType.APPLICATION_JSON)
+						.content("{\"ids\":[" + first + ", 987654]}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.affected").value(1))
+				.andExpect(jsonPath("$.skippedIds[0]").value(987654));
+
+		// Başka kullanıcının siparişleri silinemez, kendi siparişleri silinebilir
+		mockMvc.perform(delete("/orders/user/7").header("Authorization", bearer(8, "user")))
+				.andExpect(status().isForbidden());
+
+		mockMvc.perform(delete("/orders/user/7").header("Authorization", bearer()))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.affected").value(1));
+	}
+
+	private Long createOrder() {
+		Order order = new Order();
+		order.setUserId("7");
+		order.addItem(new OrderItem("p-1", 1));
+		return orderService.createOrder(order).getId();
+	}
+
+	private String bearer() {
+		return bearer(7, "user");
+	}
+
+	private String bearer(int userId, String role) {
+		return "Bearer " + Jwts.builder()
+				.claim("id", userId)
+				.claim("role", role)
+				.setExpiration(new Date(System.currentTimeMillis() + 60_000))
+				.signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+	}
+}
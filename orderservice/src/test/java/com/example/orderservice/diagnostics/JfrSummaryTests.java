@@ -0,0 +1,100 @@
+package com.example.orderservice.diagnostics;
+
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.repository.OutboxEventRepository;
+import com.example.orderservice.service.JwtService;
+import com.example.orderservice.service.OrderService;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import jdk.jfr.Recording;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class JfrSummaryTests {
+
+	private static final String SECRET = "supersecret_supersecretkey12345678";
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private JwtService jwtService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OutboxEventRepository outboxEventRepository;
+
+	@TempDir
+	private Path tempDir;
+
+	@AfterEach
+	void tearDown() {
+		orderRepository.deleteAll();
+		outboxEventRepository.deleteAll();
+	}
+
+	@Test
+	void recordedWritePathIsSummarizedPerStage() throws Exception {
+		Path file = tempDir.resolve("orders.jfr");
+		try (Recording recording = new Recording()) {
+			recording.enable(JwtVerificationEvent.class);
+			recording.enable(OrderPersistEvent.class);
+			recording.enable(EventSerializationEvent.class);
+			recording.enable(OrderPublishEvent.class);
+			recording.start();
+
+			String token = token();
+			for (int i = 0; i < 5; i++) {
+				jwtService.tryVerify(token);
+				Order order = new Order();
+				order.setUserId("jfr-user");
+				order.addItem(new OrderItem("p-1", 1));
+				order.addItem(new OrderItem("p-2", 2));
+				orderService.createOrder(order);
+			}
+			jwtService.tryVerify("not-a-token");
+
+			recording.stop();
+			recording.dump(file);
+		}
+
+		JfrSummary.Summary summary = JfrSummary.summarize(file, 3);
+
+		assertThat(summary.stage("jwt.verify").count()).isEqualTo(6);
+		assertThat(summary.stage("order.persist").count()).isEqualTo(5);
+		assertThat(summary.stage("order.persist").averageItems()).isEqualTo(2.0);
+		assertThat(summary.stage("event.serialize").count()).isEqualTo(5);
+		assertThat(summary.stage("event.serialize").averagePayloadBytes()).isGreaterThan(0);
+		assertThat(summary.stage("event.publish").count()).isZero();
+		assertThat(summary.stage("order.persist").p99()).isGreaterThanOrEqualTo(summary.stage("order.persist").p50());
+		assertThat(summary.slowest()).hasSize(3);
+
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		summary.print(new PrintStream(out, true, StandardCharsets.UTF_8));
+		assertThat(out.toString(StandardCharsets.UTF_8)).contains("order.persist").contains("slowest events:");
+	}
+
+	private String token() {
+		return Jwts.builder()
+				.claim("id", 7)
+				.setExpiration(new Date(System.currentTimeMillis() + 60_000))
+				.signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+	}
+}
@@ -0,0 +1,132 @@
+package com.example.orderservice.loadtest;
+
+import com.example.orderservice.configuration.RabbitQueue;
+import com.example.orderservice.messaging.OrderConsumer;
+import com.example.orderservice.messaging.OrderEventCodec;
+import com.example.orderservice.messaging.event.InventoryReply;
+import com.example.orderservice.messaging.event.OrderEvent;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.rabbit.batch.SimpleBatchingStrategy;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * loadtest profilinde RabbitMQ'nun yerine geçen süreç içi broker.
+ *
+ * Gönderilen her mesaj routing key başına sayılır ve hemen ack'lenir; ConfirmedPublishEngine
+ * gerçek broker'daki gibi confirm callback'ini alır. order.created event'lerinde productservice
+ * taklit edilir: her siparişe StockReserved (insufficientRatio oranında StockInsufficient) cevabı
+ * üretilir ve inventory reply listener'ı gibi batch'ler halinde OrderConsumer'a verilir.
+ * Ağ ve broker gecikmesi yoktur; yük testinde ölçülen uygulamanın kendi maliyetidir.
+ * Sadece test kaynaklarındadır, jar'a girmez.
+ */
+public class InProcessRabbitTemplate extends RabbitTemplate {
+
+    private final OrderEventCodec eventCodec;
+    private final ObjectProvider<OrderConsumer> orderConsumer;
+    private final double insufficientRatio;
+    private final int replyBatchSize;
+
+    private final SimpleBatchingStrategy batchingStrategy = new SimpleBatchingStrategy(0, 0, 0L);
+    private final BlockingQueue<Message> inventoryReplies = new LinkedBlockingQueue<>();
+    private final Map<String, LongAdder> published = new ConcurrentHashMap<>();
+    private final ScheduledExecutorService replyScheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "in-process-inventory");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private volatile ConfirmCallback confirmCallback;
+
+    // ConnectionFactory yalnızca RabbitTemplate'in doğrulaması için verilir, bağlantı açılmaz
+    public InProcessRabbitTemplate(ConnectionFactory connectionFactory, OrderEventCodec eventCodec,
+                                   ObjectProvider<OrderConsumer> orderConsumer,
+                                   double insufficientRatio, int replyBatchSize, long replyIntervalMs) {
+        super(connectionFactory);
+        this.eventCodec = eventCodec;
+        this.orderConsumer = orderConsumer;
+        this.insufficientRatio = insufficientRatio;
+        this.replyBatchSize = replyBatchSize;
+        replyScheduler.scheduleWithFixedDelay(this::deliverInventoryReplies, replyIntervalMs, replyIntervalMs, TimeUnit.MILLISECONDS);
+    }
+
+    @Override
+    public void setConfirmCallback(ConfirmCallback confirmCallback) {
+        this.confirmCallback = confirmCallback;
+    }
+
+    @Override
+    public void send(String exchange, String routingKey, Message message, CorrelationData correlationData) {
+        published.computeIfAbsent(routingKey, key -> new LongAdder()).increment();
+        if (RabbitQueue.ORDER_CREATED.getRoutingKey().equals(routingKey)) {
+            for (Message event : unbatch(message)) {
+                inventoryReplies.add(inventoryReplyFor(event));
+            }
+        }
+        ConfirmCallback callback = confirmCallback;
+        if (callback != null && correlationData != null) {
+            callback.confirm(correlationData, true, null);
+        }
+    }
+
+    public long publishedCount(String routingKey) {
+        LongAdder count = published.get(routingKey);
+        return count == null ? 0 : count.sum();
+    }
+
+    @Override
+    public void destroy() {
+        replyScheduler.shutdownNow();
+        super.destroy();
+    }
+
+    private List<Message> unbatch(Message message) {
+        if (!batchingStrategy.canDebatch(message.getMessageProperties())) {
+            return List.of(message);
+        }
+        List<Message> events = new ArrayList<>();
+        batchingStrategy.deBatch(message, events::add);
+        return events;
+    }
+
+    private Message inventoryReplyFor(Message orderCreated) {
+        MessageProperties properties = orderCreated.getMessageProperties();
+        OrderEvent event = eventCodec.decode(orderCreated.getBody(), properties.getContentType(), OrderEvent.class);
+        InventoryReply reply = ThreadLocalRandom.current().nextDouble() < insufficientRatio
+                ? new InventoryReply(InventoryReply.STOCK_INSUFFICIENT, event.id(), "simulated")
+                : new InventoryReply(InventoryReply.STOCK_RESERVED, event.id(), null);
+        // productservice cevapları JSON gönderir; uygulamanın JSON serileştirmesi ile aynı byte'lar
+        MessageProperties replyProperties = new MessageProperties();
+        replyProperties.setContentType(OrderEventCodec.JSON);
+        return new Message(eventCodec.encode(reply, OrderEventCodec.JSON), replyProperties);
+    }
+
+    private void deliverInventoryReplies() {
+        List<Message> batch = new ArrayList<>(replyBatchSize);
+        while (inventoryReplies.drainTo(batch, replyBatchSize) > 0) {
+            try {
+                orderConsumer.getObject().handleInventoryReplies(batch);
+            } catch (RuntimeException e) {
+                // Broker'daki requeue gibi: batch bir sonraki turda tekrar denenir
+                inventoryReplies.addAll(batch);
+                return;
+            }
+            batch.clear();
+        }
+    }
+}
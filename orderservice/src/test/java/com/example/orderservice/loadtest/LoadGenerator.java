@@ -0,0 +1,368 @@
+package com.example.orderservice.loadtest;
+
+import com.example.orderservice.OrderserviceApplication;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.PrintStream;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * OrderController'a karışık iş yükü uygulayan, sabit hızlı (open-loop) yük üretici.
+ *
+ * İstekler cevap beklenmeden {@code rate} hızında planlanır ve gecikme, isteğin planlandığı andan
+ * ölçülür; sunucu yavaşladığında bekleyen istekler de gecikmeye yansır (coordinated omission yok).
+ * Aynı anda yolda olabilecek istek sayısı {@code max-in-flight} ile sınırlıdır, aşan istekler
+ * "dropped" sayılır. İş yükü: sipariş oluşturma, item ekleme, güncelleme, iptal ve status poll'u.
+ * {@code seed-orders} verilirse koşudan önce bu kadar sipariş sırayla oluşturulur (ölçülmez); böylece
+ * sunucu yavaşken de diğer işlemlerin ilk andan hedef alabileceği siparişler olur.
+ *
+ * --base-url verilmezse uygulama aynı JVM'de loadtest profiliyle (H2 + süreç içi broker) başlatılır.
+ * Üretim ayarlarına yakın ölçüm için uygulamayı ayrı başlatıp adresini verin:
+ * <pre>
+ * ./mvnw spring-boot:test-run -Dspring-boot.run.profiles=loadtest
+ * java -cp target/test-classes:target/classes:&lt;test classpath&gt; com.example.orderservice.loadtest.LoadGenerator \
+ *     --base-url=http://localhost:8080 --rate=200 --duration=60 --warmup=10 \
+ *     --mix=create:20,addItem:10,update:10,cancel:5,status:55
+ * </pre>
+ */
+public class LoadGenerator {
+
+	private static final String SECRET = "supersecret_supersecretkey12345678";
+	private static final Pattern ORDER_ID = Pattern.compile("^\\{\"id\":(\\d+)");
+	private static final int KNOWN_ORDERS = 10_000;
+
+	enum Operation {
+		CREATE("POST /orders"),
+		ADD_ITEM("PATCH /orders/addProduct/{id}"),
+		UPDATE("PUT /orders/{id}"),
+		CANCEL("PATCH /orders/{id}/cancel"),
+		STATUS("GET /orders/status/{id}");
+
+		private final String endpoint;
+
+		Operation(String endpoint) {
+			this.endpoint = endpoint;
+		}
+	}
+
+	private final Options options;
+	private final URI baseUri;
+	private final HttpClient client = HttpClient.newBuilder().connectTimeout(Duration.ofSeconds(5)).build();
+	private final List<String> tokens = new ArrayList<>();
+	private final Operation[] schedule;
+
+	// Son oluşturulan siparişler; diğer işlemler bunlar arasından rastgele seçer
+	private final AtomicLongArray knownOrders = new AtomicLongArray(KNOWN_ORDERS);
+	private final AtomicLong createdOrders = new AtomicLong();
+	private final Map<Long, String> etags = new ConcurrentHashMap<>();
+
+	private final Map<Operation, Recorder> recorders = new EnumMap<>(Operation.class);
+	private final LongAdder dropped = new LongAdder();
+	private volatile boolean measuring;
+
+	public LoadGenerator(Options options, String baseUrl) {
+		this.options = options;
+		this.baseUri = URI.create(baseUrl);
+		this.schedule = options.schedule();
+		for (int user = 1; user <= options.users; user++) {
+			tokens.add("Bearer " + Jwts.builder()
+					.claim("id", user)
+					.setExpiration(new Date(System.currentTimeMillis() + TimeUnit.HOURS.toMillis(12)))
+					.signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+					.compact());
+		}
+		for (Operation operation : Operation.values()) {
+			recorders.put(operation, new Recorder());
+		}
+	}
+
+	public static void main(String[] args) throws Exception {
+		Options options = Options.parse(args);
+		ConfigurableApplicationContext application = null;
+		String baseUrl = options.baseUrl;
+		if (baseUrl == null) {
+			application = new SpringApplicationBuilder(OrderserviceApplication.class)
+					.profiles(LoadTestConfig.PROFILE)
+					.properties("server.port=0")
+					.run();
+			baseUrl = "http://localhost:" + application.getEnvironment().getProperty("local.server.port");
+		}
+		try {
+			new LoadGenerator(options, baseUrl).run().print(System.out);
+		} finally {
+			if (application != null) {
+				application.close();
+			}
+		}
+	}
+
+	public Report run() throws InterruptedException {
+		seed();
+		Semaphore inFlight = new Semaphore(options.maxInFlight);
+		long intervalNanos = TimeUnit.SECONDS.toNanos(1) / options.rate;
+		long start = System.nanoTime();
+		long measureFrom = start + TimeUnit.SECONDS.toNanos(options.warmupSeconds);
+		long end = measureFrom + TimeUnit.SECONDS.toNanos(options.durationSeconds);
+
+		for (long i = 0; ; i++) {
+			long scheduledAt = start + i * intervalNanos;
+			if (scheduledAt >= end) {
+				break;
+			}
+			long wait = scheduledAt - System.nanoTime();
+			if (wait > 0) {
+				LockSupport.parkNanos(wait);
+			}
+			measuring = scheduledAt >= measureFrom;
+			if (!inFlight.tryAcquire()) {
+				if (measuring) {
+					dropped.increment();
+				}
+				continue;
+			}
+			boolean measured = measuring;
+			Operation operation = pick(schedule[(int) (i % schedule.length)]);
+			send(operation).whenComplete((status, error) -> {
+				if (measured) {
+					recorders.get(operation).record(System.nanoTime() - scheduledAt, error == null && isSuccess(status));
+				}
+				inFlight.release();
+			});
+		}
+		// Yoldaki isteklerin bitmesini bekle
+		if (!inFlight.tryAcquire(options.maxInFlight, 30, TimeUnit.SECONDS)) {
+			System.err.println("Some requests did not complete within 30s");
+		}
+
+		List<EndpointStats> endpoints = new ArrayList<>();
+		for (Map.Entry<Operation, Recorder> entry : recorders.entrySet()) {
+			endpoints.add(entry.getValue().stats(entry.getKey().endpoint, options.durationSeconds));
+		}
+		return new Report(options.rate, options.durationSeconds, endpoints, dropped.sum());
+	}
+
+	private void seed() {
+		for (int i = 0; i < options.seedOrders; i++) {
+			int status = send(Operation.CREATE).join();
+			if (!isSuccess(status)) {
+				throw new IllegalStateException("Seeding orders failed with HTTP " + status);
+			}
+		}
+	}
+
+	// Henüz sipariş yokken diğer işlemler de oluşturmaya döner
+	private Operation pick(Operation planned) {
+		return planned != Operation.CREATE && createdOrders.get() == 0 ? Operation.CREATE : planned;
+	}
+
+	private CompletableFuture<Integer> send(Operation operation) {
+		ThreadLocalRandom random = ThreadLocalRandom.current();
+		String token = tokens.get(random.nextInt(tokens.size()));
+		long orderId = operation == Operation.CREATE ? 0 : randomKnownOrder(random);
+
+		HttpRequest.Builder request = HttpRequest.newBuilder().timeout(Duration.ofSeconds(30))
+				.header("Authorization", token)
+				.header("Content-Type", "application/json");
+		switch (operation) {
+			case CREATE -> request.uri(baseUri.resolve("/orders")).POST(json("{\"items\":" + randomItems(random) + "}"));
+			case ADD_ITEM -> request.uri(baseUri.resolve("/orders/addProduct/" + orderId))
+					.method("PATCH", json("{\"productId\":\"p-" + random.nextInt(1000) + "\",\"quantity\":1}"));
+			case UPDATE -> request.uri(baseUri.resolve("/orders/" + orderId)).PUT(json("{\"items\":" + randomItems(random) + "}"));
+			case CANCEL -> request.uri(baseUri.resolve("/orders/" + orderId + "/cancel")).method("PATCH", HttpRequest.BodyPublishers.noBody());
+			case STATUS -> {
+				request.uri(baseUri.resolve("/orders/status/" + orderId)).GET();
+				String etag = etags.get(orderId);
+				if (etag != null) {
+					request.header("If-None-Match", etag);
+				}
+			}
+		}
+		return client.sendAsync(request.build(), HttpResponse.BodyHandlers.ofString()).thenApply(response -> {
+			if (operation == Operation.CREATE && response.statusCode() == 200) {
+				rememberOrder(response.body());
+			} else if (operation == Operation.STATUS && response.statusCode() == 200) {
+				response.headers().firstValue("ETag").ifPresent(etag -> etags.put(orderId, etag));
+			}
+			return response.statusCode();
+		});
+	}
+
+	private void rememberOrder(String body) {
+		Matcher matcher = ORDER_ID.matcher(body);
+		if (matcher.find()) {
+			long index = createdOrders.getAndIncrement();
+			knownOrders.set((int) (index % KNOWN_ORDERS), Long.parseLong(matcher.group(1)));
+		}
+	}
+
+	private long randomKnownOrder(ThreadLocalRandom random) {
+		long known = Math.min(createdOrders.get(), KNOWN_ORDERS);
+		return knownOrders.get(random.nextInt((int) Math.max(1, known)));
+	}
+
+	private static String randomItems(ThreadLocalRandom random) {
+		StringBuilder items = new StringBuilder("[");
+		int count = 1 + random.nextInt(3);
+		for (int i = 0; i < count; i++) {
+			if (i > 0) {
+				items.append(',');
+			}
+			items.append("{\"productId\":\"p-").append(random.nextInt(1000)).append("\",\"quantity\":").append(1 + random.nextInt(5)).append('}');
+		}
+		return items.append(']').toString();
+	}
+
+	private static HttpRequest.BodyPublisher json(String body) {
+		return HttpRequest.BodyPublishers.ofString(body);
+	}
+
+	private static boolean isSuccess(Integer status) {
+		return status != null && (status / 100 == 2 || status == 304);
+	}
+
+	/**
+	 * Komut satırı seçenekleri, {@code --name=value} biçiminde.
+	 */
+	public static final class Options {
+		String baseUrl;
+		int rate = 100;
+		int durationSeconds = 30;
+		int warmupSeconds = 5;
+		int users = 50;
+		int maxInFlight = 512;
+		int seedOrders = 0;
+		Map<Operation, Integer> mix = new LinkedHashMap<>(Map.of(
+				Operation.CREATE, 20, Operation.ADD_ITEM, 10, Operation.UPDATE, 10, Operation.CANCEL, 5, Operation.STATUS, 55));
+
+		public static Options parse(String... args) {
+			Options options = new Options();
+			for (String arg : args) {
+				String[] pair = arg.replaceFirst("^--", "").split("=", 2);
+				String value = pair.length > 1 ? pair[1] : "";
+				switch (pair[0]) {
+					case "base-url" -> options.baseUrl = value;
+					case "rate" -> options.rate = Integer.parseInt(value);
+					case "duration" -> options.durationSeconds = Integer.parseInt(value);
+					case "warmup" -> options.warmupSeconds = Integer.parseInt(value);
+					case "users" -> options.users = Integer.parseInt(value);
+					case "max-in-flight" -> options.maxInFlight = Integer.parseInt(value);
+					case "seed-orders" -> options.seedOrders = Integer.parseInt(value);
+					case "mix" -> options.mix = parseMix(value);
+					default -> throw new IllegalArgumentException("Unknown option: " + arg);
+				}
+			}
+			if (options.rate <= 0 || options.durationSeconds <= 0) {
+				throw new IllegalArgumentException("rate and duration must be positive");
+			}
+			return options;
+		}
+
+		private static Map<Operation, Integer> parseMix(String value) {
+			Map<String, Operation> names = Map.of("create", Operation.CREATE, "addItem", Operation.ADD_ITEM,
+					"update", Operation.UPDATE, "cancel", Operation.CANCEL, "status", Operation.STATUS);
+			Map<Operation, Integer> mix = new LinkedHashMap<>();
+			for (String part : value.split(",")) {
+				String[] weight = part.split(":");
+				Operation operation = names.get(weight[0].trim());
+				if (operation == null) {
+					throw new IllegalArgumentException("Unknown operation in mix: " + weight[0] + ", expected one of " + names.keySet());
+				}
+				mix.put(operation, Integer.parseInt(weight[1].trim()));
+			}
+			return mix;
+		}
+
+		// Ağırlıklara göre karıştırılmış sabit bir sıra; her koşuda aynı oranlar
+		Operation[] schedule() {
+			List<Operation> slots = new ArrayList<>();
+			mix.forEach((operation, weight) -> {
+				for (int i = 0; i < weight; i++) {
+					slots.add(operation);
+				}
+			});
+			if (slots.isEmpty()) {
+				throw new IllegalArgumentException("mix has no operations");
+			}
+			Operation[] schedule = slots.toArray(new Operation[0]);
+			java.util.Collections.shuffle(Arrays.asList(schedule), new java.util.Random(42));
+			return schedule;
+		}
+	}
+
+	public record EndpointStats(String endpoint, long requests, long errors, double throughput,
+								double p50Millis, double p95Millis, double p99Millis, double maxMillis) {
+	}
+
+	public record Report(int targetRate, int durationSeconds, List<EndpointStats> endpoints, long dropped) {
+
+		public EndpointStats endpoint(String endpoint) {
+			return endpoints.stream().filter(stats -> stats.endpoint().equals(endpoint)).findFirst().orElseThrow();
+		}
+
+		public void print(PrintStream out) {
+			out.printf("target rate=%d req/s, measured %ds, dropped=%d%n", targetRate, durationSeconds, dropped);
+			out.printf("%-32s %9s %7s %10s %9s %9s %9s %9s%n", "endpoint", "requests", "errors", "req/s", "p50 ms", "p95 ms", "p99 ms", "max ms");
+			for (EndpointStats stats : endpoints) {
+				out.printf("%-32s %9d %7d %10.1f %9.2f %9.2f %9.2f %9.2f%n", stats.endpoint(), stats.requests(), stats.errors(),
+						stats.throughput(), stats.p50Millis(), stats.p95Millis(), stats.p99Millis(), stats.maxMillis());
+			}
+		}
+	}
+
+	private static final class Recorder {
+		private long[] latencies = new long[1024];
+		private int count;
+		private long errors;
+
+		synchronized void record(long latencyNanos, boolean success) {
+			if (count == latencies.length) {
+				latencies = Arrays.copyOf(latencies, count * 2);
+			}
+			latencies[count++] = latencyNanos;
+			if (!success) {
+				errors++;
+			}
+		}
+
+		synchronized EndpointStats stats(String endpoint, int durationSeconds) {
+			long[] sorted = Arrays.copyOf(latencies, count);
+			Arrays.sort(sorted);
+			return new EndpointStats(endpoint, count, errors, (double) count / durationSeconds,
+					percentile(sorted, 0.50), percentile(sorted, 0.95), percentile(sorted, 0.99), percentile(sorted, 1.0));
+		}
+
+		private static double percentile(long[] sorted, double quantile) {
+			if (sorted.length == 0) {
+				return 0;
+			}
+			int index = (int) Math.ceil(quantile * sorted.length) - 1;
+			return sorted[Math.max(0, index)] / 1e6;
+		}
+	}
+}
@@ -0,0 +1,58 @@
+package com.example.orderservice.loadtest;
+
+import com.example.orderservice.configuration.RabbitQueue;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.test.context.ActiveProfiles;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT)
+@ActiveProfiles(LoadTestConfig.PROFILE)
+class LoadGeneratorTests {
+
+	@LocalServerPort
+	private int port;
+
+	@Autowired
+	private InProcessRabbitTemplate broker;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Test
+	void shortRunExercisesEveryEndpointAndTheSaga() throws Exception {
+		LoadGenerator.Options options = LoadGenerator.Options.parse("--rate=20", "--duration=3", "--warmup=3", "--users=50",
+				// Yavaş makinede oluşturmalar saniyeler sürebilir; diğer işlemler ilk andan seed siparişleri hedefler
+				"--seed-orders=10",
+				// Kısa koşuda her endpoint'e istek düşsün diye eşit ağırlıklar
+				"--mix=create:1,addItem:1,update:1,cancel:1,status:1");
+
+		LoadGenerator.Report report = new LoadGenerator(options, "http://localhost:" + port).run();
+		report.print(System.out);
+
+		for (LoadGenerator.EndpointStats endpoint : report.endpoints()) {
+			assertThat(endpoint.requests()).as(endpoint.endpoint()).isPositive();
+			assertThat(endpoint.p99Millis()).as(endpoint.endpoint()).isPositive();
+		}
+		assertThat(report.endpoint("POST /orders").errors()).isZero();
+		assertThat(report.endpoint("GET /orders/status/{id}").errors()).isZero();
+
+		// Outbox relay event'leri süreç içi broker'a verir, stok cevapları siparişleri CREATED'dan çıkarır
+		long deadline = System.currentTimeMillis() + 10_000;
+		while (!sagaAdvanced() && System.currentTimeMillis() < deadline) {
+			Thread.sleep(100);
+		}
+		assertThat(broker.publishedCount(RabbitQueue.ORDER_CREATED.getRoutingKey())).isPositive();
+		assertThat(sagaAdvanced()).isTrue();
+	}
+
+	private boolean sagaAdvanced() {
+		return orderRepository.findAll().stream()
+				.anyMatch(order -> order.getStatus() == OrderStatus.PROCESSING || order.getStatus() == OrderStatus.FAILED);
+	}
+}
@@ -0,0 +1,39 @@
+package com.example.orderservice.loadtest;
+
+import com.example.orderservice.messaging.OrderConsumer;
+import com.example.orderservice.messaging.OrderEventCodec;
+import org.springframework.amqp.rabbit.connection.CachingConnectionFactory;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+
+/**
+ * Yük testi profili: PostgreSQL ve RabbitMQ olmadan uygulamanın tamamı çalışır.
+ *
+ * Veritabanı H2'dir (test kaynaklarındaki application-loadtest.properties), broker yerine
+ * {@link InProcessRabbitTemplate} kullanılır; listener container'ları başlatılmaz ve broker'a hiç
+ * bağlantı açılmaz. Profil ve stand-in'ler test kaynaklarındadır, uygulama test classpath'i ile başlatılır:
+ * <pre>
+ * ./mvnw spring-boot:test-run -Dspring-boot.run.profiles=loadtest
+ * </pre>
+ * Yük üretici: {@link LoadGenerator}.
+ */
+@Configuration
+@Profile(LoadTestConfig.PROFILE)
+public class LoadTestConfig {
+
+    public static final String PROFILE = "loadtest";
+
+    @Bean
+    public RabbitTemplate rabbitTemplate(CachingConnectionFactory connectionFactory,
+                                         OrderEventCodec eventCodec,
+                                         ObjectProvider<OrderConsumer> orderConsumer,
+                                         @Value("${loadtest.broker.insufficient-ratio:0.1}") double insufficientRatio,
+                                         @Value("${saga.listener.batch-size:200}") int replyBatchSize,
+                                         @Value("${saga.listener.receive-timeout-ms:50}") long replyIntervalMs) {
+        return new InProcessRabbitTemplate(connectionFactory, eventCodec, orderConsumer, insufficientRatio, replyBatchSize, replyIntervalMs);
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.orderservice.logger;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class LogLimiterTests {
+
+	@Test
+	void perSecondAllowsBurstThenCountsSuppressed() {
+		LogLimiter limiter = LogLimiter.perSecond(3);
+
+		int allowed = 0;
+		for (int i = 0; i < 10; i++) {
+			if (limiter.tryAcquire()) {
+				allowed++;
+			}
+		}
+
+		assertThat(allowed).isEqualTo(3);
+		assertThat(limiter.drainSuppressed()).isEqualTo(7);
+		assertThat(limiter.drainSuppressed()).isZero();
+	}
+
+	@Test
+	void oneInPassesEveryNthCall() {
+		LogLimiter limiter = LogLimiter.oneIn(4);
+
+		int allowed = 0;
+		for (int i = 0; i < 12; i++) {
+			if (limiter.tryAcquire()) {
+				allowed++;
+			}
+		}
+
+		assertThat(allowed).isEqualTo(3);
+		assertThat(limiter.drainSuppressed()).isEqualTo(9);
+	}
+
+	@Test
+	void rejectsNonPositivePermits() {
+		assertThatThrownBy(() -> LogLimiter.perSecond(0)).isInstanceOf(IllegalArgumentException.class);
+	}
+}
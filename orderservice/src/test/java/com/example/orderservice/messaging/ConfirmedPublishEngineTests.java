@@ -0,0 +1,103 @@
+package com.example.orderservice.messaging;
+
+import com.example.orderservice.logger.LoggerService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class ConfirmedPublishEngineTests {
+
+	private final RabbitTemplate rabbitTemplate = mock(RabbitTemplate.class);
+	private final List<CorrelationData> sent = new CopyOnWriteArrayList<>();
+	private SimpleMeterRegistry registry;
+	private ConfirmedPublishEngine engine;
+
+	@BeforeEach
+	void setUp() {
+		registry = new SimpleMeterRegistry();
+		engine = new ConfirmedPublishEngine(registry, 2, 3, 1, 10, 50);
+		ReflectionTestUtils.setField(engine, "rabbitTemplate", rabbitTemplate);
+		ReflectionTestUtils.setField(engine, "logger", new LoggerService());
+		doAnswer(invocation -> sent.add(invocation.getArgument(3)))
+				.when(rabbitTemplate).convertAndSend(anyString(), eq("order.created"), any(Object.class), any(CorrelationData.class));
+	}
+
+	@AfterEach
+	void tearDown() {
+		engine.shutdown();
+	}
+
+	@Test
+	void ackCompletesFutureAndReleasesWindow() {
+		CompletableFuture<Void> result = engine.publish("order.created", "{}");
+		assertThat(engine.inFlight()).isEqualTo(1);
+
+		engine.confirm(sent.get(0), true, null);
+
+		assertThat(result).isCompleted();
+		assertThat(engine.availablePermits()).isEqualTo(2);
+		assertThat(registry.get("publisher.confirms").tag("result", "ack").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void nackIsRetriedWithNewCorrelationId() throws Exception {
+		CompletableFuture<Void> result = engine.publish("order.created", "{}");
+
+		engine.confirm(sent.get(0), false, "broker busy");
+		waitForSends(2);
+		engine.confirm(sent.get(1), true, null);
+
+		result.get(1, TimeUnit.SECONDS);
+		assertThat(sent.get(1).getId()).isNotEqualTo(sent.get(0).getId());
+		assertThat(registry.get("publisher.retries").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void fullWindowAppliesBackpressure() {
+		engine.publish("order.created", "{}");
+		engine.publish("order.created", "{}");
+
+		CompletableFuture<Void> third = engine.publish("order.created", "{}");
+
+		assertThat(third).isCompletedExceptionally();
+		assertThat(sent).hasSize(2);
+	}
+
+	@Test
+	void givesUpAfterMaxAttempts() throws Exception {
+		CompletableFuture<Void> result = engine.publish("order.created", "{}");
+
+		for (int attempt = 1; attempt <= 3; attempt++) {
+			waitForSends(attempt);
+			engine.confirm(sent.get(attempt - 1), false, "nack");
+		}
+
+		assertThat(result).failsWithin(1, TimeUnit.SECONDS);
+		assertThat(engine.availablePermits()).isEqualTo(2);
+		assertThat(registry.get("publisher.failures").counter().count()).isEqualTo(1);
+	}
+
+	private void waitForSends(int count) throws InterruptedException {
+		long deadline = System.currentTimeMillis() + 1000;
+		while (sent.size() < count && System.currentTimeMillis() < deadline) {
+			Thread.sleep(5);
+		}
+		assertThat(sent).hasSizeGreaterThanOrEqualTo(count);
+	}
+}
@@ -0,0 +1,77 @@
+package com.example.orderservice.messaging;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * Testler için RabbitMQ yerine geçen basit, tek thread'li kuyruk.
+ *
+ * Mesajlar JSON olarak kuyruğa yazılır ve batch listener'lara container gibi listeler halinde
+ * verilir. Listener exception fırlatırsa batch, varsayılan requeue davranışındaki gibi
+ * kuyruğun başına geri konur; {@link #redeliver(String)} broker'ın tekrar teslimini taklit eder.
+ */
+class LocalBroker {
+
+	private final ObjectMapper mapper = new ObjectMapper();
+	private final Map<String, Deque<Message>> queues = new HashMap<>();
+	private final Map<String, List<Message>> delivered = new HashMap<>();
+
+	void send(String queue, Object payload) {
+		try {
+			MessageProperties properties = new MessageProperties();
+			properties.setContentType(MessageProperties.CONTENT_TYPE_JSON);
+			properties.setConsumerQueue(queue);
+			queue(queue).addLast(new Message(mapper.writeValueAsBytes(payload), properties));
+		} catch (JsonProcessingException e) {
+			throw new IllegalStateException(e);
+		}
+	}
+
+	int drain(String queue, int batchSize, Consumer<List<Message>> listener) {
+		Deque<Message> messages = queue(queue);
+		int batches = 0;
+		while (!messages.isEmpty()) {
+			List<Message> batch = new ArrayList<>(batchSize);
+			while (batch.size() < batchSize && !messages.isEmpty()) {
+				batch.add(messages.pollFirst());
+			}
+			try {
+				listener.accept(batch);
+			} catch (RuntimeException e) {
+				for (int i = batch.size() - 1; i >= 0; i--) {
+					messages.addFirst(batch.get(i));
+				}
+				throw e;
+			}
+			delivered.computeIfAbsent(queue, key -> new ArrayList<>()).addAll(batch);
+			batches++;
+		}
+		return batches;
+	}
+
+	// Onaylanmış mesajları tekrar kuyruğa koyar (consumer bağlantısı ack'ten önce koparsa olduğu gibi)
+	void redeliver(String queue) {
+		List<Message> messages = delivered.remove(queue);
+		if (messages != null) {
+			queue(queue).addAll(messages);
+		}
+	}
+
+	int pending(String queue) {
+		return queue(queue).size();
+	}
+
+	private Deque<Message> queue(String queue) {
+		return queues.computeIfAbsent(queue, key -> new ArrayDeque<>());
+	}
+}
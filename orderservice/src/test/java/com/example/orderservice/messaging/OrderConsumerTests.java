@@ -0,0 +1,90 @@
+package com.example.orderservice.messaging;
+
+import com.example.orderservice.exception.UnknownUserException;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.repository.UserProjectionRepository;
+import com.example.orderservice.service.OrderService;
+import com.example.orderservice.service.UserDirectory;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class OrderConsumerTests {
+
+	@Autowired
+	private OrderConsumer orderConsumer;
+
+	@Autowired
+	private UserDirectory userDirectory;
+
+	@Autowired
+	private UserProjectionRepository userProjectionRepository;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@AfterEach
+	void tearDown() {
+		ReflectionTestUtils.setField(userDirectory, "enforce", false);
+		orderRepository.deleteAll();
+		userProjectionRepository.deleteAll();
+	}
+
+	@Test
+	void registeredBatchIsProjectedAndMalformedMessagesAreSkipped() {
+		orderConsumer.handleUserRegistered(List.of(
+				message("{\"type\":\"UserRegistered\",\"user_id\":101,\"email\":\"a@example.com\"}"),
+				message("not json"),
+				message("{\"type\":\"UserRegistered\",\"user_id\":102,\"email\":\"b@example.com\"}")));
+
+		assertThat(userProjectionRepository.count()).isEqualTo(2);
+		assertThat(userDirectory.find("101")).get().extracting("email").isEqualTo("a@example.com");
+	}
+
+	@Test
+	void deletedUserCannotOrderEvenAfterLateRegistration() {
+		orderConsumer.handleUserRegistered(List.of(message("{\"user_id\":201,\"email\":\"c@example.com\"}")));
+		userDirectory.requireActive("201");
+
+		orderConsumer.handleUserDeleted(List.of(message("{\"user_id\":201,\"email\":\"c@example.com\"}")));
+		orderConsumer.handleUserRegistered(List.of(message("{\"user_id\":201,\"email\":\"c@example.com\"}")));
+
+		assertThatThrownBy(() -> orderService.createOrder(newOrder("201"))).isInstanceOf(UnknownUserException.class);
+	}
+
+	@Test
+	void unknownUsersAreRejectedOnlyWhenEnforced() {
+		assertThat(orderService.createOrder(newOrder("999")).getId()).isNotNull();
+
+		ReflectionTestUtils.setField(userDirectory, "enforce", true);
+
+		assertThatThrownBy(() -> orderService.createOrder(newOrder("998"))).isInstanceOf(UnknownUserException.class);
+	}
+
+	private Message message(String body) {
+		return new Message(body.getBytes(StandardCharsets.UTF_8), new MessageProperties());
+	}
+
+	private Order newOrder(String userId) {
+		Order order = new Order();
+		order.setUserId(userId);
+		order.addItem(new OrderItem("p-1", 1));
+		return order;
+	}
+}
@@ -0,0 +1,93 @@
+package com.example.orderservice.messaging;
+
+import com.example.orderservice.model.OutboxEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.batch.SimpleBatchingStrategy;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderEventBatcherTests {
+
+	private final OrderEventBatcher batcher = new OrderEventBatcher(new SimpleMeterRegistry(), true, 3, 1024, 100);
+	private final OrderEventCodec codec = new OrderEventCodec(new SimpleMeterRegistry(), OrderEventCodec.JSON);
+
+	@Test
+	void groupsByRoutingKeyAndKeepsOrderWithinKey() {
+		List<OutboxEvent> events = List.of(
+				event(1, "order.created"), event(2, "order.updated"), event(3, "order.created"),
+				event(4, "order.created"), event(5, "order.created"), event(6, "order.updated"));
+
+		List<List<OutboxEvent>> chunks = batcher.group(events);
+
+		assertThat(chunks).extracting(this::ids).containsExactly(
+				List.of(1L, 3L, 4L), List.of(5L), List.of(2L, 6L));
+	}
+
+	@Test
+	void splitsWhenMaxBytesWouldBeExceeded() {
+		OrderEventBatcher smallBuffer = new OrderEventBatcher(new SimpleMeterRegistry(), true, 50, 30, 100);
+
+		List<List<OutboxEvent>> chunks = smallBuffer.group(List.of(
+				event(1, "order.created"), event(2, "order.created"), event(3, "order.created")));
+
+		assertThat(chunks).extracting(this::ids).containsExactly(List.of(1L, 2L), List.of(3L));
+	}
+
+	@Test
+	void batchMessageIsUnpackedBySpringListenerContainers() {
+		List<OutboxEvent> chunk = List.of(event(1, "order.created"), event(2, "order.created"));
+
+		Message message = codec.toBatchMessage(chunk);
+
+		SimpleBatchingStrategy strategy = new SimpleBatchingStrategy(0, 0, 0);
+		assertThat(strategy.canDebatch(message.getMessageProperties())).isTrue();
+		List<String> bodies = new ArrayList<>();
+		strategy.deBatch(message, fragment -> bodies.add(new String(fragment.getBody(), StandardCharsets.UTF_8)));
+		assertThat(bodies).containsExactly("{\"id\":1}", "{\"id\":2}");
+	}
+
+	@Test
+	void packedEventsTravelAloneAndKeepTheirPlaceWithinKey() {
+		OutboxEvent packed = new OutboxEvent(3L, "order.canceled", OrderEventCodec.pack(List.of(
+				"{\"id\":3}".getBytes(StandardCharsets.UTF_8), "{\"id\":4}".getBytes(StandardCharsets.UTF_8))),
+				OrderEventCodec.JSON, OrderEventCodec.SCHEMA_VERSION, 2);
+		packed.setId(3L);
+
+		List<List<OutboxEvent>> chunks = batcher.group(List.of(
+				event(1, "order.canceled"), event(2, "order.created"), packed, event(4, "order.canceled")));
+
+		assertThat(chunks).extracting(this::ids).containsExactly(List.of(1L), List.of(3L), List.of(2L), List.of(4L));
+		Message message = codec.toBatchMessage(chunks.get(1));
+		List<String> bodies = new ArrayList<>();
+		new SimpleBatchingStrategy(0, 0, 0).deBatch(message, fragment -> bodies.add(new String(fragment.getBody(), StandardCharsets.UTF_8)));
+		assertThat(bodies).containsExactly("{\"id\":3}", "{\"id\":4}");
+	}
+
+	@Test
+	void holdsPartialBatchUntilLingerElapses() {
+		OutboxEvent first = event(1, "order.created");
+		Instant createdAt = first.getCreatedAt();
+
+		assertThat(batcher.shouldHold(List.of(first), createdAt.plusMillis(10))).isTrue();
+		assertThat(batcher.shouldHold(List.of(first), createdAt.plusMillis(150))).isFalse();
+		assertThat(batcher.shouldHold(List.of(first, event(2, "a"), event(3, "b")), createdAt)).isFalse();
+	}
+
+	private OutboxEvent event(long id, String routingKey) {
+		byte[] body = ("{\"id\":" + id + "}").getBytes(StandardCharsets.UTF_8);
+		OutboxEvent event = new OutboxEvent(id, routingKey, body, OrderEventCodec.JSON, OrderEventCodec.SCHEMA_VERSION);
+		event.setId(id);
+		return event;
+	}
+
+	private List<Long> ids(List<OutboxEvent> chunk) {
+		return chunk.stream().map(OutboxEvent::getId).toList();
+	}
+}
@@ -0,0 +1,70 @@
+package com.example.orderservice.messaging;
+
+import com.example.orderservice.messaging.event.OrderEvent;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.model.OutboxEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class OrderEventCodecTests {
+
+	private final OrderEventCodec codec = new OrderEventCodec(new SimpleMeterRegistry(), OrderEventCodec.JSON);
+
+	@Test
+	void jsonIsPlainObjectNotEncodedString() {
+		byte[] body = codec.encode(OrderEvent.from(newOrder()));
+
+		String json = new String(body, StandardCharsets.UTF_8);
+		assertThat(json).startsWith("{").contains("\"productId\":\"p-1\"");
+	}
+
+	@Test
+	void cborRoundTripsAndIsSmallerThanJson() {
+		OrderEvent event = OrderEvent.from(newOrder());
+
+		byte[] json = codec.encode(event, OrderEventCodec.JSON);
+		byte[] cbor = codec.encode(event, OrderEventCodec.CBOR);
+
+		assertThat(codec.decode(cbor, OrderEventCodec.CBOR, OrderEvent.class)).isEqualTo(event);
+		assertThat(cbor.length).isLessThan(json.length);
+	}
+
+	@Test
+	void messageCarriesContentTypeAndSchemaVersion() {
+		OutboxEvent outboxEvent = new OutboxEvent(7L, "order.created", codec.encode(OrderEvent.from(newOrder())),
+				codec.getContentType(), OrderEventCodec.SCHEMA_VERSION);
+		outboxEvent.setId(11L);
+
+		Message message = codec.toMessage(outboxEvent);
+
+		assertThat(message.getMessageProperties().getContentType()).isEqualTo(OrderEventCodec.JSON);
+		assertThat((Integer) message.getMessageProperties().getHeader(OrderEventCodec.VERSION_HEADER)).isEqualTo(OrderEventCodec.SCHEMA_VERSION);
+		assertThat(message.getMessageProperties().getMessageId()).isEqualTo("11");
+		assertThat(message.getBody()).isSameAs(outboxEvent.getBody());
+	}
+
+	@Test
+	void rejectsUnknownContentType() {
+		assertThatThrownBy(() -> new OrderEventCodec(new SimpleMeterRegistry(), "application/xml")).isInstanceOf(IllegalArgumentException.class);
+	}
+
+	private Order newOrder() {
+		Order order = new Order();
+		order.setId(7L);
+		order.setUserId("42");
+		order.setStatus(OrderStatus.CREATED);
+		order.setVersion(0L);
+		OrderItem item = new OrderItem("p-1", 2);
+		item.setId(70L);
+		order.addItem(item);
+		return order;
+	}
+}
@@ -0,0 +1,168 @@
+package com.example.orderservice.messaging;
+
+import com.example.orderservice.configuration.RabbitConfig;
+import com.example.orderservice.exception.InvalidTransitionException;
+import com.example.orderservice.messaging.event.InventoryReply;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.service.OrderSaga;
+import com.example.orderservice.service.OrderService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+class OrderSagaTests {
+
+	private static final String QUEUE = RabbitConfig.INVENTORY_REPLY_QUEUE;
+
+	@Autowired
+	private OrderConsumer orderConsumer;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private final LocalBroker broker = new LocalBroker();
+
+	@AfterEach
+	void tearDown() {
+		orderRepository.deleteAll();
+	}
+
+	@Test
+	void transitionTableCoversOnlyCreatedOrders() {
+		assertThat(OrderSaga.next(OrderStatus.CREATED, OrderSaga.Event.STOCK_RESERVED)).isEqualTo(OrderStatus.PROCESSING);
+		assertThat(OrderSaga.next(OrderStatus.CREATED, OrderSaga.Event.STOCK_INSUFFICIENT)).isEqualTo(OrderStatus.FAILED);
+		assertThat(OrderSaga.next(OrderStatus.PROCESSING, OrderSaga.Event.STOCK_RESERVED)).isNull();
+		assertThat(OrderSaga.next(OrderStatus.CANCELED, OrderSaga.Event.STOCK_RESERVED)).isNull();
+	}
+
+	@Test
+	void repliesMoveCreatedOrdersForward() {
+		Long reserved = createOrder();
+		Long insufficient = createOrder();
+
+		broker.send(QUEUE, new InventoryReply(InventoryReply.STOCK_RESERVED, reserved, null));
+		broker.send(QUEUE, new InventoryReply(InventoryReply.STOCK_INSUFFICIENT, insufficient, "p-1 out of stock"));
+		broker.drain(QUEUE, 10, orderConsumer::handleInventoryReplies);
+
+		assertThat(statusOf(reserved)).isEqualTo(OrderStatus.PROCESSING);
+		assertThat(statusOf(insufficient)).isEqualTo(OrderStatus.FAILED);
+		assertThat(orderService.getOrderById(reserved)).get().extracting(Order::getStatus).isEqualTo(OrderStatus.PROCESSING);
+	}
+
+	@Test
+	void redeliveredAndConflictingRepliesAreIgnored() {
+		Long orderId = createOrder();
+		broker.send(QUEUE, new InventoryReply(InventoryReply.STOCK_RESERVED, orderId, null));
+		broker.drain(QUEUE, 10, orderConsumer::handleInventoryReplies);
+		Long version = orderRepository.findById(orderId).orElseThrow().getVersion();
+
+		broker.redeliver(QUEUE);
+		broker.send(QUEUE, new InventoryReply(InventoryReply.STOCK_INSUFFICIENT, orderId, "late"));
+		broker.send(QUEUE, new InventoryReply(InventoryReply.STOCK_RESERVED, -1L, null));
+		broker.drain(QUEUE, 10, orderConsumer::handleInventoryReplies);
+
+		Order order = orderRepository.findById(orderId).orElseThrow();
+		assertThat(order.getStatus()).isEqualTo(OrderStatus.PROCESSING);
+		assertThat(order.getVersion()).isEqualTo(version);
+		assertThat(broker.pending(QUEUE)).isZero();
+	}
+
+	@Test
+	void replyForCanceledOrderDoesNotReviveIt() {
+		Long orderId = createOrder();
+		orderService.cancelOrder(orderId);
+
+		broker.send(QUEUE, new InventoryReply(InventoryReply.STOCK_RESERVED, orderId, null));
+		broker.drain(QUEUE, 10, orderConsumer::handleInventoryReplies);
+
+		assertThat(statusOf(orderId)).isEqualTo(OrderStatus.CANCELED);
+	}
+
+	@Test
+	void failedOrderCannotBeCanceled() {
+		Long orderId = createOrder();
+		broker.send(QUEUE, new InventoryReply(InventoryReply.STOCK_INSUFFICIENT, orderId, "p-1 out of stock"));
+		broker.drain(QUEUE, 10, orderConsumer::handleInventoryReplies);
+
+		// Stok hiç düşülmedi; iptal order.canceled ile stoğu geri eklerdi
+		assertThatThrownBy(() -> orderService.cancelOrder(orderId)).isInstanceOf(InvalidTransitionException.class);
+		assertThat(statusOf(orderId)).isEqualTo(OrderStatus.FAILED);
+	}
+
+	@Test
+	void itemsOfFailedAndCanceledOrdersCannotChange() {
+		Long failed = createOrder();
+		broker.send(QUEUE, new InventoryReply(InventoryReply.STOCK_INSUFFICIENT, failed, "p-1 out of stock"));
+		broker.drain(QUEUE, 10, orderConsumer::handleInventoryReplies);
+		Long canceled = createOrder();
+		orderService.cancelOrder(canceled);
+
+		for (Long orderId : List.of(failed, canceled)) {
+			Long itemId = orderRepository.findWithItemsById(orderId).orElseThrow().getItems().get(0).getId();
+			// Değişiklik stoğu düşerdi, ama sipariş silinince geri eklenmezdi
+			assertThatThrownBy(() -> orderService.addOrderItemToOrder(orderId, new OrderItem("p-2", 1)))
+					.isInstanceOf(InvalidTransitionException.class);
+			assertThatThrownBy(() -> orderService.updateOrder(orderId, List.of(new OrderItem("p-1", 5))))
+					.isInstanceOf(InvalidTransitionException.class);
+			assertThatThrownBy(() -> orderService.removeItemFromOrder(orderId, itemId))
+					.isInstanceOf(InvalidTransitionException.class);
+			assertThat(orderRepository.findWithItemsById(orderId).orElseThrow().getItems())
+					.extracting(OrderItem::getProductId, OrderItem::getQuantity)
+					.containsExactly(tuple("p-1", 1));
+		}
+	}
+
+	@Test
+	void largeBatchCostsOneSelectAndBatchedUpdates() {
+		List<Long> orderIds = new ArrayList<>();
+		for (int i = 0; i < 200; i++) {
+			orderIds.add(createOrder());
+		}
+		for (Long orderId : orderIds) {
+			broker.send(QUEUE, new InventoryReply(InventoryReply.STOCK_RESERVED, orderId, null));
+		}
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		int batches = broker.drain(QUEUE, 200, orderConsumer::handleInventoryReplies);
+
+		assertThat(batches).isEqualTo(1);
+		assertThat(orderRepository.findAll()).allSatisfy(order -> assertThat(order.getStatus()).isEqualTo(OrderStatus.PROCESSING));
+		// Özet entity olarak değil, tek atomik update ile yazılır
+		assertThat(statistics.getEntityUpdateCount()).isEqualTo(200);
+		// 1 select + 50'lik update batch'leri + özet update'i
+		assertThat(statistics.getPrepareStatementCount()).isLessThan(10);
+	}
+
+	private Long createOrder() {
+		Order order = new Order();
+		order.setUserId("saga-user");
+		order.addItem(new OrderItem("p-1", 1));
+		return orderService.createOrder(order).getId();
+	}
+
+	private OrderStatus statusOf(Long orderId) {
+		return orderRepository.findById(orderId).orElseThrow().getStatus();
+	}
+}
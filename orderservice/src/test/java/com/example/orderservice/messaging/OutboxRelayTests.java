@@ -0,0 +1,68 @@
+package com.example.orderservice.messaging;
+
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.repository.OutboxEventRepository;
+import com.example.orderservice.service.OrderService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@SpringBootTest
+class OutboxRelayTests {
+
+	@MockitoBean
+	private OrderPublisher orderPublisher;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OutboxRelay outboxRelay;
+
+	@Autowired
+	private OutboxEventRepository outboxEventRepository;
+
+	@BeforeEach
+	void clearOutbox() {
+		outboxEventRepository.deleteAll();
+	}
+
+	@Test
+	void createOrderWritesOutboxRowAndRelayDrainsIt() {
+		orderService.createOrder(newOrder());
+		assertThat(outboxEventRepository.count()).isEqualTo(1);
+		when(orderPublisher.publishBatch(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+
+		assertThat(outboxRelay.relayBatch()).isEqualTo(1);
+
+		verify(orderPublisher).publishBatch(anyList());
+		assertThat(outboxEventRepository.count()).isZero();
+	}
+
+	@Test
+	void unconfirmedEventsStayInOutbox() {
+		orderService.createOrder(newOrder());
+		when(orderPublisher.publishBatch(anyList())).thenReturn(List.of());
+
+		assertThat(outboxRelay.relayBatch()).isZero();
+
+		assertThat(outboxEventRepository.count()).isEqualTo(1);
+	}
+
+	private Order newOrder() {
+		Order order = new Order();
+		order.setUserId("42");
+		order.addItem(new OrderItem("p-1", 2));
+		return order;
+	}
+}
@@ -0,0 +1,64 @@
+package com.example.orderservice.security;
+
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+class JwtAuthenticationFilterTests {
+
+	private static final String SECRET = "supersecret_supersecretkey12345678";
+
+	@Autowired
+	private MockMvc mockMvc;
+
+	@Test
+	void missingTokenIsRejectedWith401() throws Exception {
+		mockMvc.perform(get("/orders/user/7"))
+				.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void forgedTokenIsRejectedWith401() throws Exception {
+		String forged = Jwts.builder()
+				.claim("id", 7)
+				.signWith(Keys.hmacShaKeyFor("another_secret_another_secret_1234".getBytes(StandardCharsets.UTF_8)))
+				.compact();
+
+		mockMvc.perform(get("/orders/user/7").header("Authorization", "Bearer " + forged))
+				.andExpect(status().isUnauthorized());
+		mockMvc.perform(get("/orders/user/7").header("Authorization", "Bearer not.a.jwt"))
+				.andExpect(status().isUnauthorized());
+	}
+
+	@Test
+	void validTokenInjectsPrincipalIntoHandler() throws Exception {
+		mockMvc.perform(post("/orders")
+						.header("Authorization", "Bearer " + validToken())
+						.contentType("application/json")
+						.content("{\"items\":[{\"productId\":\"p-1\",\"quantity\":1}]}"))
+				.andExpect(status().isOk())
+				.andExpect(jsonPath("$.userId").value("7"));
+	}
+
+	private String validToken() {
+		return Jwts.builder()
+				.claim("id", 7)
+				.setExpiration(new Date(System.currentTimeMillis() + 60_000))
+				.signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+	}
+}
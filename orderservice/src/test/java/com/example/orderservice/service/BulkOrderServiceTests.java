@@ -0,0 +1,148 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.BulkOrderResult;
+import com.example.orderservice.messaging.OrderEventCodec;
+import com.example.orderservice.messaging.event.OrderEvent;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.model.OutboxEvent;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.repository.OutboxEventRepository;
+import com.example.orderservice.repository.UserOrderSummaryRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.batch.SimpleBatchingStrategy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest
+class BulkOrderServiceTests {
+
+	private static final String USER = "bulk-user";
+	private static final String OTHER_USER = "bulk-other-user";
+
+	@Autowired
+	private BulkOrderService bulkOrderService;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderSummaryService orderSummaryService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OutboxEventRepository outboxEventRepository;
+
+	@Autowired
+	private UserOrderSummaryRepository summaryRepository;
+
+	@Autowired
+	private OrderEventCodec eventCodec;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	@AfterEach
+	void tearDown() {
+		orderRepository.deleteAll();
+		summaryRepository.deleteAll();
+		outboxEventRepository.deleteAll();
+	}
+
+	@Test
+	void cancelsOnlyOrdersWithAValidTransitionAndPublishesOneEvent() {
+		Long first = createOrder(USER);
+		Long second = createOrder(USER);
+		Long alreadyCanceled = createOrder(OTHER_USER);
+		orderService.cancelOrder(alreadyCanceled);
+		// Cache'teki eski hali toplu değişiklikten sonra dönmemeli
+		assertThat(orderService.getOrderById(first)).isPresent();
+		outboxEventRepository.deleteAll();
+		Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+
+		BulkOrderResult result = bulkOrderService.changeStatus(List.of(first, second, alreadyCanceled, -1L, first), OrderStatus.CANCELED);
+
+		// Item'larla birlikte tek okuma + where koşulunda geçiş kontrolü olan tek update + outbox + özet
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(4);
+
+		assertThat(result.getAffected()).isEqualTo(2);
+		assertThat(result.getSkippedIds()).containsExactly(alreadyCanceled, -1L);
+		assertThat(orderService.getOrderById(first).orElseThrow().getStatus()).isEqualTo(OrderStatus.CANCELED);
+		assertThat(orderRepository.findStatusById(second).orElseThrow().getVersion()).isEqualTo(1);
+
+		List<OutboxEvent> outbox = outboxEventRepository.findAll();
+		assertThat(outbox).singleElement().satisfies(event -> {
+			assertThat(event.getRoutingKey()).isEqualTo("order.canceled");
+			assertThat(event.getEventCount()).isEqualTo(2);
+		});
+		assertThat(unpack(outbox.get(0))).extracting(OrderEvent::id, OrderEvent::status, OrderEvent::version, event -> event.items().size())
+				.containsExactly(tuple(first, OrderStatus.CANCELED, 1L, 2), tuple(second, OrderStatus.CANCELED, 1L, 2));
+
+		assertThat(orderSummaryService.getSummary(USER).orElseThrow().getOrders(OrderStatus.CANCELED)).isEqualTo(2);
+		assertThat(orderSummaryService.rebuild(USER)).isFalse();
+		assertThat(orderSummaryService.rebuild(OTHER_USER)).isFalse();
+
+		// Geçersiz geçiş: CREATED olmayan sipariş SHIPPED'e geçemez
+		assertThat(bulkOrderService.changeStatus(List.of(first), OrderStatus.SHIPPED).getSkippedIds()).containsExactly(first);
+	}
+
+	@Test
+	void deletesByIdsAndByUserWithoutLoadingOrders() {
+		Long first = createOrder(USER);
+		Long live = createOrder(USER);
+		Long canceled = createOrder(USER);
+		Long otherUsers = createOrder(OTHER_USER);
+		orderService.cancelOrder(canceled);
+		outboxEventRepository.deleteAll();
+
+		BulkOrderResult byIds = bulkOrderService.deleteOrders(List.of(first, -1L));
+		assertThat(byIds.getAffected()).isEqualTo(1);
+		assertThat(byIds.getSkippedIds()).containsExactly(-1L);
+		assertThat(orderService.getOrderById(first)).isEmpty();
+
+		assertThat(bulkOrderService.deleteOrdersByUserId(USER).getAffected()).isEqualTo(2);
+		assertThat(orderRepository.findByUserId(USER)).isEmpty();
+		assertThat(orderRepository.findById(otherUsers)).isPresent();
+
+		List<OutboxEvent> outbox = outboxEventRepository.findAll();
+		assertThat(outbox).extracting(OutboxEvent::getRoutingKey, OutboxEvent::getEventCount)
+				.containsExactly(tuple("order.deleted", 1), tuple("order.deleted", 2));
+		// İptal edilen siparişin stoğu zaten geri eklendi; silme event'i item taşımaz
+		assertThat(unpack(outbox.get(1))).extracting(OrderEvent::id, event -> event.items().size())
+				.containsExactly(tuple(live, 2), tuple(canceled, 0));
+		assertThat(summaryRepository.findById(USER).orElseThrow().getTotalOrders()).isZero();
+		assertThat(summaryRepository.findById(USER).orElseThrow().getItemCount()).isZero();
+		assertThat(orderSummaryService.rebuild(OTHER_USER)).isFalse();
+	}
+
+	private List<OrderEvent> unpack(OutboxEvent outboxEvent) {
+		Message message = eventCodec.toMessage(outboxEvent);
+		List<OrderEvent> events = new ArrayList<>();
+		new SimpleBatchingStrategy(0, 0, 0).deBatch(message, fragment ->
+				events.add(eventCodec.decode(fragment.getBody(), outboxEvent.getContentType(), OrderEvent.class)));
+		return events;
+	}
+
+	private Long createOrder(String userId) {
+		Order order = new Order();
+		order.setUserId(userId);
+		order.addItem(new OrderItem("p-1", 2));
+		order.addItem(new OrderItem("p-2", 1));
+		return orderService.createOrder(order).getId();
+	}
+}
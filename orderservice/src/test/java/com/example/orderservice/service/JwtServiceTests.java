@@ -0,0 +1,70 @@
+package com.example.orderservice.service;
+
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class JwtServiceTests {
+
+	private static final String SECRET = "supersecret_supersecretkey12345678";
+
+	private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+	private final JwtService jwtService = new JwtService(registry, true, 100, 3600);
+
+	@Test
+	void repeatedTokenIsServedFromCache() {
+		String token = token(new Date(System.currentTimeMillis() + 60_000));
+
+		Claims first = jwtService.verifyToken("Bearer " + token);
+		Claims second = jwtService.verifyToken(token);
+
+		assertThat(second).isSameAs(first);
+		assertThat(first.get("id", Integer.class)).isEqualTo(7);
+		assertThat(registry.get("cache.gets").tag("cache", "jwt.claims").tag("result", "hit").functionCounter().count()).isEqualTo(1);
+		assertThat(registry.get("cache.gets").tag("cache", "jwt.claims").tag("result", "miss").functionCounter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void disabledCacheParsesEveryToken() {
+		SimpleMeterRegistry uncachedRegistry = new SimpleMeterRegistry();
+		JwtService uncached = new JwtService(uncachedRegistry, false, 100, 3600);
+		String token = token(new Date(System.currentTimeMillis() + 60_000));
+
+		Claims first = uncached.verifyToken(token);
+		Claims second = uncached.verifyToken(token);
+
+		assertThat(second).isNotSameAs(first).isEqualTo(first);
+		assertThat(uncachedRegistry.get("jwt.verify").tag("result", "parsed").timer().count()).isEqualTo(2);
+		assertThat(uncachedRegistry.get("jwt.verify").tag("result", "cached").timer().count()).isZero();
+	}
+
+	@Test
+	void tamperedTokenIsRejected() {
+		String token = token(new Date(System.currentTimeMillis() + 60_000));
+
+		assertThatThrownBy(() -> jwtService.verifyToken(token + "x")).isInstanceOf(RuntimeException.class);
+	}
+
+	@Test
+	void expiredTokenIsRejected() {
+		String token = token(new Date(System.currentTimeMillis() - 1_000));
+
+		assertThatThrownBy(() -> jwtService.verifyToken(token)).isInstanceOf(RuntimeException.class);
+	}
+
+	private String token(Date expiration) {
+		return Jwts.builder()
+				.claim("id", 7)
+				.setExpiration(expiration)
+				.signWith(Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8)))
+				.compact();
+	}
+}
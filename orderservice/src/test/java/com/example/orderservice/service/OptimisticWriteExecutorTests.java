@@ -0,0 +1,104 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.exception.OrderConflictException;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.repository.OrderRepository;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class OptimisticWriteExecutorTests {
+
+	@Autowired
+	private OptimisticWriteExecutor writeExecutor;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private MeterRegistry registry;
+
+	@AfterEach
+	void tearDown() {
+		orderRepository.deleteAll();
+	}
+
+	@Test
+	void concurrentModificationIsRetriedAndNotLost() {
+		Long orderId = createOrder();
+		AtomicInteger attempts = new AtomicInteger();
+
+		writeExecutor.execute("test-concurrent", () -> {
+			Order order = orderRepository.findForUpdateById(orderId).orElseThrow();
+			if (attempts.incrementAndGet() == 1) {
+				// Bu deneme commit olmadan önce başka bir transaction siparişi değiştirir
+				CompletableFuture.runAsync(() -> orderService.addOrderItemToOrder(orderId, new OrderItem("p-2", 1))).join();
+			}
+			order.setUserId("updated-user");
+			return order;
+		});
+
+		Order reloaded = orderRepository.findWithItemsById(orderId).orElseThrow();
+		assertThat(attempts).hasValue(2);
+		assertThat(reloaded.getUserId()).isEqualTo("updated-user");
+		assertThat(reloaded.getItems()).hasSize(2);
+		assertThat(registry.get("orders.write.conflicts").tag("operation", "test-concurrent").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void exhaustedRetriesSurfaceAsConflict() {
+		assertThatThrownBy(() -> writeExecutor.execute("test-exhausted", () -> {
+			throw new ObjectOptimisticLockingFailureException(Order.class, 1L);
+		})).isInstanceOf(OrderConflictException.class);
+
+		assertThat(registry.get("orders.write.conflicts").tag("operation", "test-exhausted").counter().count()).isEqualTo(3);
+		assertThat(registry.get("orders.write.conflicts.exhausted").tag("operation", "test-exhausted").counter().count()).isEqualTo(1);
+	}
+
+	@Test
+	void itemOnlyChangesBumpOrderVersion() {
+		Long orderId = createOrder();
+		Long before = orderRepository.findById(orderId).orElseThrow().getVersion();
+
+		orderService.addOrderItemToOrder(orderId, new OrderItem("p-3", 1));
+		orderService.cancelOrder(orderId);
+
+		Order after = orderRepository.findById(orderId).orElseThrow();
+		assertThat(after.getVersion()).isGreaterThan(before);
+		assertThat(after.getStatus()).isEqualTo(OrderStatus.CANCELED);
+	}
+
+	@Test
+	void deleteRunsThroughTheWriteExecutor() {
+		Long orderId = createOrder();
+		double before = registry.counter("orders.writes", "operation", "delete").count();
+
+		assertThat(orderService.removeOrderById(orderId)).isTrue();
+		assertThat(orderService.removeOrderById(orderId)).isFalse();
+
+		// Çakışan silme de diğer yazmalar gibi tekrar denenir, sonunda 500 yerine 409 döner
+		assertThat(registry.counter("orders.writes", "operation", "delete").count()).isEqualTo(before + 2);
+	}
+
+	private Long createOrder() {
+		Order order = new Order();
+		order.setUserId("conflict-user");
+		order.addItem(new OrderItem("p-1", 1));
+		return orderService.createOrder(order).getId();
+	}
+}
@@ -0,0 +1,128 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.repository.ArchivedOrderRepository;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.repository.UserOrderSummaryRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.tuple;
+
+@SpringBootTest(properties = {"orders.archive.batch-size=2", "orders.archive.pause-ms=0", "orders.archive.min-age-days=30"})
+class OrderArchiverTests {
+
+	private static final String USER = "archive-user";
+
+	@Autowired
+	private OrderArchiver orderArchiver;
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderSummaryService orderSummaryService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private ArchivedOrderRepository archivedOrderRepository;
+
+	@Autowired
+	private UserOrderSummaryRepository summaryRepository;
+
+	@Autowired
+	private TransactionTemplate transactionTemplate;
+
+	@PersistenceContext
+	private EntityManager entityManager;
+
+	@AfterEach
+	void tearDown() {
+		orderRepository.deleteAll();
+		archivedOrderRepository.deleteAll();
+		summaryRepository.deleteAll();
+	}
+
+	@Test
+	void movesOnlyOldTerminalOrdersInBatches() {
+		Long oldCanceled1 = createCanceledOrder();
+		Long oldCanceled2 = createCanceledOrder();
+		Long oldCanceled3 = createCanceledOrder();
+		Long recentCanceled = createCanceledOrder();
+		Long oldLive = createOrder();
+		age(List.of(oldCanceled1, oldCanceled2, oldCanceled3, oldLive), Duration.ofDays(31));
+
+		// 2'lik batch'ler: 2 + 1
+		assertThat(orderArchiver.archive()).isEqualTo(3);
+
+		assertThat(orderRepository.findAllById(List.of(oldCanceled1, oldCanceled2, oldCanceled3))).isEmpty();
+		assertThat(orderRepository.findById(recentCanceled)).isPresent();
+		assertThat(orderRepository.findById(oldLive)).isPresent();
+		assertThat(archivedOrderRepository.count()).isEqualTo(3);
+		assertThat(orderArchiver.archive()).isZero();
+	}
+
+	@Test
+	void archivedOrdersStayReadableAndCounted() {
+		Long orderId = createCanceledOrder();
+		// Canlı hali cache'e girer, arşivleme cache'ten düşürmeli
+		assertThat(orderService.getOrderById(orderId)).isPresent();
+		age(List.of(orderId), Duration.ofDays(31));
+
+		orderArchiver.archive();
+
+		assertThat(orderRepository.findById(orderId)).isEmpty();
+		Order archived = orderService.getOrderById(orderId).orElseThrow();
+		assertThat(archived.getStatus()).isEqualTo(OrderStatus.CANCELED);
+		assertThat(archived.getUserId()).isEqualTo(USER);
+		assertThat(archived.getItems()).extracting(OrderItem::getProductId, OrderItem::getQuantity)
+				.containsExactlyInAnyOrder(tuple("p-1", 2), tuple("p-2", 1));
+		assertThat(orderService.getOrderStatusView(orderId)).hasValueSatisfying(view -> {
+			assertThat(view.getStatus()).isEqualTo(OrderStatus.CANCELED);
+			assertThat(view.getVersion()).isEqualTo(archived.getVersion());
+		});
+		assertThat(orderService.getOrderStatusByOrderId(orderId)).contains(OrderStatus.CANCELED);
+
+		// Özet arşivlenen siparişi saymaya devam eder, rebuild sapma görmez
+		assertThat(orderSummaryService.getSummary(USER).orElseThrow().getOrders(OrderStatus.CANCELED)).isEqualTo(1);
+		assertThat(orderSummaryService.rebuild(USER)).isFalse();
+		assertThat(summaryRepository.findById(USER)).isPresent();
+	}
+
+	private Long createCanceledOrder() {
+		Long orderId = createOrder();
+		orderService.cancelOrder(orderId);
+		return orderId;
+	}
+
+	private Long createOrder() {
+		Order order = new Order();
+		order.setUserId(USER);
+		order.addItem(new OrderItem("p-1", 2));
+		order.addItem(new OrderItem("p-2", 1));
+		return orderService.createOrder(order).getId();
+	}
+
+	// Toplu update @UpdateTimestamp'i tetiklemez, updatedAt geçmişte kalır
+	private void age(List<Long> orderIds, Duration age) {
+		transactionTemplate.executeWithoutResult(status -> entityManager
+				.createQuery("update Order o set o.updatedAt = :updatedAt where o.id in :ids")
+				.setParameter("updatedAt", Instant.now().minus(age))
+				.setParameter("ids", orderIds)
+				.executeUpdate());
+	}
+}
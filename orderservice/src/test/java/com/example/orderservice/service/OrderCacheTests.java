@@ -0,0 +1,91 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.repository.OrderRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class OrderCacheTests {
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private Statistics statistics;
+	private Long orderId;
+
+	@BeforeEach
+	void setUp() {
+		Order order = new Order();
+		order.setUserId("cache-user");
+		order.addItem(new OrderItem("p-1", 1));
+		orderId = orderService.createOrder(order).getId();
+
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@AfterEach
+	void tearDown() {
+		orderRepository.deleteAll();
+	}
+
+	@Test
+	void repeatedLookupsHitTheCache() {
+		Order first = orderService.getOrderById(orderId).orElseThrow();
+		Order second = orderService.getOrderById(orderId).orElseThrow();
+
+		assertThat(second).isSameAs(first);
+		assertThat(first.getItems()).hasSize(1);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void concurrentMissesLoadOnce() {
+		List<CompletableFuture<Order>> lookups = new ArrayList<>();
+		for (int i = 0; i < 16; i++) {
+			lookups.add(CompletableFuture.supplyAsync(() -> orderService.getOrderById(orderId).orElseThrow()));
+		}
+		lookups.forEach(CompletableFuture::join);
+
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void mutationsInvalidateCachedOrder() {
+		assertThat(orderService.getOrderStatusByOrderId(orderId)).contains(OrderStatus.CREATED);
+
+		assertThat(orderService.getOrderById(orderId).orElseThrow().getItems()).hasSize(1);
+
+		// İptal edilen siparişin item'ları değişemez; item ekleme iptalden önce
+		orderService.addOrderItemToOrder(orderId, new OrderItem("p-2", 2));
+		assertThat(orderService.getOrderById(orderId).orElseThrow().getItems()).hasSize(2);
+
+		orderService.cancelOrder(orderId);
+		assertThat(orderService.getOrderById(orderId).orElseThrow().getStatus()).isEqualTo(OrderStatus.CANCELED);
+
+		orderService.removeOrderById(orderId);
+		assertThat(orderService.getOrderById(orderId)).isEmpty();
+		assertThat(orderRepository.findById(orderId)).isEmpty();
+	}
+}
@@ -0,0 +1,182 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.CursorPage;
+import com.example.orderservice.exception.InvalidCursorException;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.Page;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@SpringBootTest
+class OrderFetchPlanTests {
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private OutboxEventRepository outboxEventRepository;
+
+	@Autowired
+	private UserDirectory userDirectory;
+
+	@Autowired
+	private EntityManagerFactory entityManagerFactory;
+
+	private static final OrderStatus[] STATUSES = {OrderStatus.CREATED, OrderStatus.PAID, OrderStatus.CANCELED, OrderStatus.CREATED};
+
+	private final ObjectMapper mapper = new ObjectMapper();
+
+	private Statistics statistics;
+
+	@BeforeEach
+	void setUp() {
+		orderRepository.deleteAll();
+		outboxEventRepository.deleteAll();
+		List<Order> orders = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			Order order = new Order();
+			order.setUserId(i % 2 == 0 ? "fetch-even" : "fetch-odd");
+			order.setStatus(STATUSES[i % STATUSES.length]);
+			for (int j = 0; j < 3; j++) {
+				order.addItem(new OrderItem("p-" + j, j + 1));
+			}
+			orders.add(order);
+		}
+		orderRepository.saveAll(orders);
+		// Kullanıcı kontrolü cache'ten gelsin, ölçülen sadece sipariş sorguları olsun
+		userDirectory.find("fetch-even");
+		userDirectory.find("fetch-odd");
+
+		statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+		statistics.clear();
+	}
+
+	@AfterEach
+	void tearDown() {
+		orderRepository.deleteAll();
+		outboxEventRepository.deleteAll();
+	}
+
+	@Test
+	void pageOfOrdersWithItemsCostsConstantStatements() throws Exception {
+		Page<Order> page = orderService.getAllOrders(0, 100);
+		String json = mapper.writeValueAsString(page.getContent());
+
+		assertThat(page.getContent()).hasSize(100);
+		assertThat(page.getContent()).allSatisfy(order -> assertThat(order.getItems()).hasSize(3));
+		assertThat(json).contains("p-2");
+		// id sayfası + count + item'larla birlikte siparişler
+		assertThat(statistics.getPrepareStatementCount()).isLessThanOrEqualTo(3);
+	}
+
+	@Test
+	void ordersByUserIdAreFetchedWithItemsInOneStatement() throws Exception {
+		List<Order> orders = orderService.getOrdersByUserId("fetch-even");
+		mapper.writeValueAsString(orders);
+
+		assertThat(orders).hasSize(50);
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void streamedOrdersCarryItemsAndUseOneStatement() {
+		List<Order> streamed = new ArrayList<>();
+		orderService.streamOrdersByUserId("fetch-odd", streamed::add);
+
+		assertThat(streamed).hasSize(50).extracting(Order::getId).isSorted().doesNotHaveDuplicates();
+		assertThat(streamed).allSatisfy(order -> assertThat(order.getItems()).hasSize(3));
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+	}
+
+	@Test
+	void bulkCreationBatchesInserts() {
+		List<Order> orders = new ArrayList<>();
+		for (int i = 0; i < 100; i++) {
+			Order order = new Order();
+			order.setUserId("bulk-user");
+			order.addItem(new OrderItem("p-1", 1));
+			order.addItem(new OrderItem("p-2", 2));
+			orders.add(order);
+		}
+
+		List<Order> created = orderService.createOrders(orders);
+
+		assertThat(created).hasSize(100).allSatisfy(order -> assertThat(order.getId()).isNotNull());
+		assertThat(orderRepository.findWithItemsByUserId("bulk-user")).hasSize(100);
+		// 100 order + 200 item 50'lik batch'lerle, event'ler tek paketlenmiş outbox satırında
+		assertThat(statistics.getEntityInsertCount()).isEqualTo(301);
+		assertThat(statistics.getPrepareStatementCount()).isLessThan(40);
+		assertThat(outboxEventRepository.findAll()).singleElement().satisfies(event -> {
+			assertThat(event.getRoutingKey()).isEqualTo("order.created");
+			assertThat(event.getAggregateId()).isEqualTo(created.get(0).getId());
+			assertThat(event.getEventCount()).isEqualTo(100);
+		});
+	}
+
+	@Test
+	void cursorPagesWalkAllOrdersWithoutCounting() {
+		List<Long> seen = new ArrayList<>();
+		String cursor = null;
+		int pages = 0;
+		do {
+			CursorPage<Order> page = orderService.getOrdersAfter(cursor, 30, null, false);
+			page.getContent().forEach(order -> seen.add(order.getId()));
+			assertThat(page.getTotalElements()).isNull();
+			cursor = page.getNextCursor();
+			pages++;
+		} while (cursor != null);
+
+		assertThat(pages).isEqualTo(4);
+		assertThat(seen).hasSize(100).isSorted().doesNotHaveDuplicates();
+		// sayfa başına id seek + item'larla siparişler, count yok
+		assertThat(statistics.getPrepareStatementCount()).isEqualTo(8);
+	}
+
+	@Test
+	void cursorKeepsStatusFilterAndCountsOnlyWhenAsked() {
+		CursorPage<Order> first = orderService.getOrdersAfter(null, 20, OrderStatus.CREATED, true);
+
+		assertThat(first.getContent()).hasSize(20).allSatisfy(order -> assertThat(order.getStatus()).isEqualTo(OrderStatus.CREATED));
+		assertThat(first.getTotalElements()).isEqualTo(50);
+		assertThat(first.getNextCursor()).isNotNull();
+
+		// Sonraki sayfalarda status tekrar gönderilmese de cursor'daki filtre geçerli
+		List<Long> seen = new ArrayList<>(first.getContent().stream().map(Order::getId).toList());
+		CursorPage<Order> second = orderService.getOrdersAfter(first.getNextCursor(), 20, OrderStatus.CREATED, false);
+		assertThat(second.getTotalElements()).isNull();
+		second.getContent().forEach(order -> seen.add(order.getId()));
+		CursorPage<Order> last = orderService.getOrdersAfter(second.getNextCursor(), 20, null, false);
+		last.getContent().forEach(order -> seen.add(order.getId()));
+
+		assertThat(last.getNextCursor()).isNull();
+		assertThat(List.of(second, last)).allSatisfy(page ->
+				assertThat(page.getContent()).allSatisfy(order -> assertThat(order.getStatus()).isEqualTo(OrderStatus.CREATED)));
+		assertThat(seen).hasSize(50).isSorted().doesNotHaveDuplicates();
+
+		assertThat(orderService.getOrdersAfter(null, 10, OrderStatus.SHIPPED, true).getTotalElements()).isZero();
+		assertThatThrownBy(() -> orderService.getOrdersAfter(first.getNextCursor(), 20, OrderStatus.PAID, false))
+				.isInstanceOf(InvalidCursorException.class);
+		assertThatThrownBy(() -> orderService.getOrdersAfter("bm90LWEtY3Vyc29y", 10, null, false))
+				.isInstanceOf(InvalidCursorException.class);
+	}
+}
@@ -0,0 +1,68 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.dto.OrderItemDelta;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderItemDiffTests {
+
+	@Test
+	void producesAddedRemovedAndQuantityChangedDeltas() {
+		Order order = order(item(1L, "p-1", 1), item(2L, "p-2", 2), item(3L, "p-3", 3));
+
+		OrderItemDiff diff = OrderItemDiff.apply(order, List.of(
+				item(1L, "p-1", 1),
+				item(2L, "p-2", 5),
+				new OrderItem("p-4", 4)));
+
+		assertThat(diff.getQuantityChanged()).singleElement()
+				.satisfies(delta -> {
+					assertThat(delta.getItemId()).isEqualTo(2L);
+					assertThat(delta.getQuantityDelta()).isEqualTo(3);
+				});
+		assertThat(diff.getRemoved()).extracting(OrderItemDelta::getProductId).containsExactly("p-3");
+		assertThat(diff.getAdded()).extracting(OrderItemDelta::getNewQuantity).containsExactly(4);
+		assertThat(order.getItems()).extracting(OrderItem::getProductId).containsExactly("p-1", "p-2", "p-4");
+		assertThat(order.getItems()).allSatisfy(item -> assertThat(item.getOrder()).isSameAs(order));
+	}
+
+	@Test
+	void itemWithoutIdMatchesExistingProductInsteadOfReplacingIt() {
+		Order order = order(item(1L, "p-1", 1));
+
+		OrderItemDiff diff = OrderItemDiff.apply(order, List.of(new OrderItem("p-1", 3)));
+
+		assertThat(diff.getAdded()).isEmpty();
+		assertThat(diff.getRemoved()).isEmpty();
+		assertThat(diff.getQuantityChanged()).extracting(OrderItemDelta::getNewQuantity).containsExactly(3);
+		assertThat(order.getItems()).extracting(OrderItem::getId).containsExactly(1L);
+	}
+
+	@Test
+	void unchangedItemsProduceEmptyDiff() {
+		Order order = order(item(1L, "p-1", 1), item(2L, "p-2", 2));
+
+		OrderItemDiff diff = OrderItemDiff.apply(order, List.of(item(2L, "p-2", 2), item(1L, "p-1", 1)));
+
+		assertThat(diff.isEmpty()).isTrue();
+	}
+
+	private Order order(OrderItem... items) {
+		Order order = new Order();
+		for (OrderItem item : items) {
+			order.addItem(item);
+		}
+		return order;
+	}
+
+	private OrderItem item(Long id, String productId, int quantity) {
+		OrderItem item = new OrderItem(productId, quantity);
+		item.setId(id);
+		return item;
+	}
+}
@@ -0,0 +1,137 @@
+package com.example.orderservice.service;
+
+import com.example.orderservice.messaging.event.InventoryReply;
+import com.example.orderservice.model.Order;
+import com.example.orderservice.model.OrderItem;
+import com.example.orderservice.model.OrderStatus;
+import com.example.orderservice.model.UserOrderSummary;
+import com.example.orderservice.repository.OrderRepository;
+import com.example.orderservice.repository.UserOrderSummaryRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@SpringBootTest
+class OrderSummaryServiceTests {
+
+	private static final String USER = "summary-user";
+
+	@Autowired
+	private OrderService orderService;
+
+	@Autowired
+	private OrderSaga orderSaga;
+
+	@Autowired
+	private OrderSummaryService orderSummaryService;
+
+	@Autowired
+	private OrderRepository orderRepository;
+
+	@Autowired
+	private UserOrderSummaryRepository summaryRepository;
+
+	@AfterEach
+	void tearDown() {
+		orderRepository.deleteAll();
+		summaryRepository.deleteAll();
+	}
+
+	@Test
+	void everyWritePathKeepsTheSummaryInStep() {
+		Long first = createOrder(new OrderItem("p-1", 2), new OrderItem("p-2", 1));
+		Long second = createOrder(new OrderItem("p-3", 5));
+		assertSummary(2, 0, 3, 8);
+
+		orderService.addOrderItemToOrder(first, new OrderItem("p-4", 4));
+		assertSummary(2, 0, 4, 12);
+
+		// p-1 adedi 2 -> 3, p-2 silinir, p-5 eklenir
+		orderService.updateOrder(first, List.of(new OrderItem("p-1", 3), new OrderItem("p-4", 4), new OrderItem("p-5", 1)));
+		assertSummary(2, 0, 4, 13);
+
+		Long removedItem = orderRepository.findWithItemsById(second).orElseThrow().getItems().get(0).getId();
+		orderService.removeItemFromOrder(second, removedItem);
+		assertSummary(2, 0, 3, 8);
+
+		orderService.cancelOrder(second);
+		assertSummary(1, 1, 3, 8);
+
+		orderService.removeOrderById(first);
+		assertSummary(0, 1, 0, 0);
+
+		// Artımlı güncellemeler siparişlerden yeniden hesaplanan değerle aynı
+		assertThat(orderSummaryService.rebuild(USER)).isFalse();
+	}
+
+	@Test
+	void bulkCreateAndSagaTransitionsAreCounted() {
+		List<Order> orders = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			Order order = new Order();
+			order.setUserId(USER);
+			order.addItem(new OrderItem("p-1", 1));
+			orders.add(order);
+		}
+		List<Order> created = orderService.createOrders(orders);
+
+		orderSaga.apply(List.of(
+				new InventoryReply(InventoryReply.STOCK_RESERVED, created.get(0).getId(), null),
+				new InventoryReply(InventoryReply.STOCK_RESERVED, created.get(1).getId(), null),
+				new InventoryReply(InventoryReply.STOCK_INSUFFICIENT, created.get(2).getId(), "out of stock"),
+				// Tekrar teslim edilen cevap özeti ikinci kez değiştirmez
+				new InventoryReply(InventoryReply.STOCK_RESERVED, created.get(0).getId(), null)));
+
+		UserOrderSummary summary = summaryRepository.findById(USER).orElseThrow();
+		assertThat(summary.getOrders(OrderStatus.CREATED)).isEqualTo(7);
+		assertThat(summary.getOrders(OrderStatus.PROCESSING)).isEqualTo(2);
+		assertThat(summary.getOrders(OrderStatus.FAILED)).isEqualTo(1);
+		assertThat(summary.getTotalOrders()).isEqualTo(10);
+		assertThat(summary.getItemCount()).isEqualTo(10);
+		assertThat(orderSummaryService.rebuild(USER)).isFalse();
+	}
+
+	@Test
+	void rebuildCorrectsDriftAndDropsOrphanSummaries() {
+		createOrder(new OrderItem("p-1", 2));
+		UserOrderSummary drifted = summaryRepository.findById(USER).orElseThrow();
+		drifted.setOrders(OrderStatus.CREATED, 40);
+		drifted.setTotalQuantity(-3);
+		summaryRepository.save(drifted);
+
+		UserOrderSummary orphan = new UserOrderSummary("summary-orphan");
+		orphan.setOrders(OrderStatus.DELIVERED, 2);
+		orphan.setUpdatedAt(drifted.getUpdatedAt());
+		summaryRepository.save(orphan);
+
+		assertThat(orderSummaryService.rebuildAll()).isEqualTo(2);
+
+		assertSummary(1, 0, 1, 2);
+		assertThat(summaryRepository.findById("summary-orphan")).isEmpty();
+		assertThat(orderSummaryService.rebuildAll()).isZero();
+	}
+
+	private void assertSummary(long created, long canceled, long items, long quantity) {
+		UserOrderSummary summary = orderSummaryService.getSummary(USER).orElseThrow();
+		assertThat(summary.getOrders(OrderStatus.CREATED)).as("created").isEqualTo(created);
+		assertThat(summary.getOrders(OrderStatus.CANCELED)).as("canceled").isEqualTo(canceled);
+		assertThat(summary.getTotalOrders()).as("total").isEqualTo(created + canceled);
+		assertThat(summary.getItemCount()).as("items").isEqualTo(items);
+		assertThat(summary.getTotalQuantity()).as("quantity").isEqualTo(quantity);
+	}
+
+	private Long createOrder(OrderItem... items) {
+		Order order = new Order();
+		order.setUserId(USER);
+		for (OrderItem item : items) {
+			order.addItem(item);
+		}
+		return orderService.createOrder(order).getId();
+	}
+}
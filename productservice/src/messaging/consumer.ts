@@ -1,23 +1,61 @@
 import { ConsumeMessage } from 'amqplib';
 import { getChannel } from './rabbitmq';
+import { publishInventoryReply } from './publisher';
+import { decodeEvents, SUPPORTED_EVENT_VERSION } from './eventCodec';
 import { handleOrderCanceled, handleOrderCreated, handleOrderDeleted, handleOrderItemAdded, handleOrderUpdated } from '../services/orderHandler';
 
+// Delay before an order.created event that hit an infrastructure error is retried
+const RETRY_DELAY_MS = 1000;
+
+// Puts events that were not processed back on the queue one by one, so the events of a batch
+// message that already reserved stock and replied are not reserved again.
+const requeueEvents = (queue: string, msg: ConsumeMessage, events: any[]): void => {
+  const channel = getChannel();
+  for (const event of events) {
+    channel.sendToQueue(queue, Buffer.from(JSON.stringify(event)), {
+      contentType: 'application/json',
+      headers: { 'x-event-version': msg.properties.headers?.['x-event-version'] ?? SUPPORTED_EVENT_VERSION },
+      persistent: true,
+    });
+  }
+};
+
 export const orderCreatedConsumer = async (): Promise<void> => {
   const channel = await getChannel();
   const queue = 'order.craeted.queue';
 
   channel.consume(queue, async(msg: ConsumeMessage | null) => {
     if (!msg) return;
+    let events: any[];
     try {
-    const data = JSON.parse(msg.content.toString());
-    console.log(`[←] Received message:`, data);
-
-    await handleOrderCreated(data); // <- if async
+      events = decodeEvents(msg);
+    } catch (err) {
+      console.error('❌ Failed to decode message', err);
+      channel.nack(msg, false, false);
+      return;
+    }
+    console.log(`[←] Received ${events.length} event(s):`, events);
+
+    for (let i = 0; i < events.length; i++) {
+      const data = events[i];
+      try {
+        const result = await handleOrderCreated(data);
+        publishInventoryReply(data.id, result.reserved, result.reason);
+      } catch (err) {
+        // Not a stock decision: no reply is sent, the order stays CREATED and the event is retried
+        console.error(`❌ Failed to reserve stock for order ${data.id}, retrying`, err);
+        await new Promise((resolve) => setTimeout(resolve, RETRY_DELAY_MS));
+        try {
+          requeueEvents(queue, msg, events.slice(i));
+          channel.ack(msg);
+        } catch (requeueErr) {
+          console.error('❌ Failed to requeue events, redelivering message', requeueErr);
+          channel.nack(msg, false, true);
+        }
+        return;
+      }
+    }
     channel.ack(msg);
-  } catch (err) {
-    console.error('❌ Failed to process message', err);
-    channel.nack(msg, false, false);
-  }
   });
 
   console.log('[✓] Order consumer started and listening for order.created');
@@ -30,10 +68,12 @@ export const orderUpdatedConsumer = async (): Promise<void> => {
   channel.consume(queue, async(msg: ConsumeMessage | null) => {
     if (!msg) return;
     try {
-    const data = JSON.parse(msg.content.toString());
-    console.log(`[←] Received message:`, data);
+    const events = decodeEvents(msg);
+    console.log(`[←] Received ${events.length} event(s):`, events);
 
-    await handleOrderUpdated(data); 
+    for (const data of events) {
+      await handleOrderUpdated(data); 
+    }
     channel.ack(msg);
   } catch (err) {
     console.error('❌ Failed to process message', err);
@@ -51,10 +91,12 @@ export const orderCanceledConsumer = async (): Promise<void> => {
   channel.consume(queue, async(msg: ConsumeMessage | null) => {
     if (!msg) return;
     try {
-    const data = JSON.parse(msg.content.toString());
-    console.log(`[←] Received message:`, data);
+    const events = decodeEvents(msg);
+    console.log(`[←] Received ${events.length} event(s):`, events);
 
-    await handleOrderCanceled(data); 
+    for (const data of events) {
+      await handleOrderCanceled(data); 
+    }
     channel.ack(msg);
   } catch (err) {
     console.error('❌ Failed to process message', err);
@@ -72,10 +114,12 @@ export const orderItemAddedConsumer = async (): Promise<void> => {
   channel.consume(queue, async(msg: ConsumeMessage | null) => {
     if (!msg) return;
     try {
-    const data = JSON.parse(msg.content.toString());
-    console.log(`[←] Received message:`, data);
+    const events = decodeEvents(msg);
+    console.log(`[←] Received ${events.length} event(s):`, events);
 
-    await handleOrderItemAdded(data); 
+    for (const data of events) {
+      await handleOrderItemAdded(data); 
+    }
     channel.ack(msg);
   } catch (err) {
     console.error('❌ Failed to process message', err);
@@ -93,10 +137,12 @@ export const orderDeletedConsumer = async(): Promise<void> => {
   channel.consume(queue, async(msg: ConsumeMessage | null) => {
     if (!msg) return;
     try {
-    const data = JSON.parse(msg.content.toString());
-    console.log(`[←] Received message:`, data);
+    const events = decodeEvents(msg);
+    console.log(`[←] Received ${events.length} event(s):`, events);
 
-    await handleOrderDeleted(data); 
+    for (const data of events) {
+      await handleOrderDeleted(data); 
+    }
     channel.ack(msg);
   } catch (err) {
     console.error('❌ Failed to process message', err);
@@ -0,0 +1,41 @@
+import { ConsumeMessage } from 'amqplib';
+import { Decoder } from 'cbor-x';
+
+// orderservice sends encoded events with a content-type and an x-event-version header.
+// In batching mode several events share one message (Spring AMQP "lengthHeader4" format:
+// a 4-byte big-endian length before each event body).
+export const SUPPORTED_EVENT_VERSION = 1;
+
+// orderservice's CBOR events come from Jackson's CBORMapper: (indefinite-length) maps with the
+// same field names as the JSON events, so both formats decode to the same objects.
+const cborDecoder = new Decoder({ mapsAsObjects: true, int64AsType: 'number' });
+
+const bodyDecoders: Record<string, (body: Buffer) => any> = {
+  'application/json': (body) => JSON.parse(body.toString()),
+  'application/cbor': (body) => cborDecoder.decode(body),
+};
+
+export const decodeEvents = (msg: Pick<ConsumeMessage, 'content' | 'properties'>): any[] => {
+  const contentType = msg.properties.contentType ?? 'application/json';
+  const decodeBody = bodyDecoders[contentType];
+  if (!decodeBody) {
+    throw new Error(`Unsupported content type: ${contentType}`);
+  }
+  const headers = msg.properties.headers ?? {};
+  const version = headers['x-event-version'] ?? SUPPORTED_EVENT_VERSION;
+  if (version > SUPPORTED_EVENT_VERSION) {
+    throw new Error(`Unsupported event version: ${version}`);
+  }
+  if (headers['springBatchFormat'] !== 'lengthHeader4') {
+    return [decodeBody(msg.content)];
+  }
+  const events = [];
+  let offset = 0;
+  while (offset < msg.content.length) {
+    const length = msg.content.readUInt32BE(offset);
+    offset += 4;
+    events.push(decodeBody(msg.content.subarray(offset, offset + length)));
+    offset += length;
+  }
+  return events;
+};
@@ -11,3 +11,15 @@ export const publishProductCreated = async (product: any) => {
 
   console.log(`[→] Sent product.created: ${product.name}`);
 };
+
+// Stock reservation result for orderservice's order saga (queue order.inventory.reply.queue)
+export const publishInventoryReply = (orderId: number, reserved: boolean, reason?: string) => {
+  const channel = getChannel();
+  const routingKey = reserved ? 'inventory.reserved' : 'inventory.insufficient';
+  const reply = { type: reserved ? 'StockReserved' : 'StockInsufficient', orderId, reason };
+
+  channel.publish('amq.topic', routingKey, Buffer.from(JSON.stringify(reply)), {
+    contentType: 'application/json',
+    persistent: true,
+  });
+};
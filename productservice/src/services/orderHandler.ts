@@ -18,34 +18,51 @@ interface Order {
     items: OrderItem[];
 }
 
+interface OrderItemDelta {
+  itemId: number | null;
+  productId: string;
+  oldQuantity: number;
+  newQuantity: number;
+  quantityDelta: number;
+}
+
 interface OrderDTO {
-  id: number;
+  orderId: number;
   userId: string;
   status: string;
-  existingItems: OrderItem[];
-  updatedItems: OrderItem[];
+  added: OrderItemDelta[];
+  removed: OrderItemDelta[];
+  quantityChanged: OrderItemDelta[];
+}
+
+export interface StockReservation {
+  reserved: boolean;
+  reason?: string;
 }
 
-export const handleOrderCreated = async (order: Order): Promise<void> => {
-    try{
-        for (const item of order.items) {
-          const product = await getProductById(item.productId);
-          if (!product) {
-            logger.error(`Product not found: ${item.productId}`);
-            throw new Error(`Product not found: ${item.productId}`);
-          }
-          if (product.stock < item.quantity) {
-            logger.error(`Insufficient stock for product ${product.name}`);
-            throw new Error(`Insufficient stock for product ${product.name}`);
-          }
-          const _: Nullable<HydratedDocument<Product>> = await updateProduct(item.productId, { "stock": product.stock - item.quantity});
-        }
-        logger.info("order created => ", JSON.stringify(order, null, 2));
+// Checks every item before touching stock, so an insufficient order leaves stock unchanged.
+// The result is sent back to orderservice as an inventory reply. Only a missing product or
+// insufficient stock is a negative reply; database/network errors are thrown so the consumer
+// can retry the event instead of failing the order for good.
+export const handleOrderCreated = async (order: Order): Promise<StockReservation> => {
+    const products = [];
+    for (const item of order.items) {
+      const product = await getProductById(item.productId);
+      if (!product) {
+        logger.error(`Product not found: ${item.productId}`);
+        return { reserved: false, reason: `Product not found: ${item.productId}` };
+      }
+      if (product.stock < item.quantity) {
+        logger.error(`Insufficient stock for product ${product.name}`);
+        return { reserved: false, reason: `Insufficient stock for product ${product.name}` };
+      }
+      products.push({ product, item });
     }
-    catch(err) {
-        const error = err as Error;
-        logger.error(error.message);
+    for (const { product, item } of products) {
+      const _: Nullable<HydratedDocument<Product>> = await updateProduct(item.productId, { "stock": product.stock - item.quantity});
     }
+    logger.info("order created => ", JSON.stringify(order, null, 2));
+    return { reserved: true };
 };
 
 export const handleOrderCanceled = async (order: Order): Promise<void> => {
@@ -92,14 +109,13 @@ export const handleOrderItemAdded = async (orderItem: OrderItem): Promise<void>
 
 export const handleOrderUpdated = async(order: OrderDTO): Promise<void> => {
   try {
-    for (const updatedItem of order.updatedItems) {
-      const existingItem = order.existingItems.find(e => e.productId === updatedItem.productId);
-      const diffQuantity = existingItem ? updatedItem.quantity - existingItem.quantity : updatedItem.quantity;
-      const product = await getProductById(updatedItem.productId);
-      if (!product) throw new Error(`Product not found: ${updatedItem.productId}`);
-      const newStock = product.stock - diffQuantity;
+    const deltas = [...(order.added ?? []), ...(order.removed ?? []), ...(order.quantityChanged ?? [])];
+    for (const delta of deltas) {
+      const product = await getProductById(delta.productId);
+      if (!product) throw new Error(`Product not found: ${delta.productId}`);
+      const newStock = product.stock - delta.quantityDelta;
       if (newStock < 0) throw new Error(`Insufficient stock for product ${product.name}`);
-      await updateProduct(updatedItem.productId, { stock: newStock });
+      await updateProduct(delta.productId, { stock: newStock });
     }
     logger.info("order updated", JSON.stringify(order, null, 2));
   } catch (err) {
@@ -0,0 +1,48 @@
+import { decodeEvents } from '../src/messaging/eventCodec';
+
+// Bodies produced by orderservice's OrderEventCodec (Jackson CBORMapper) for two OrderEvents
+const createdCbor = Buffer.from(
+  'bf626964182a6675736572496466757365722d376673746174757367435245415445446776657273696f6e00656974656d7381bf6269640569'
+    + '70726f64756374496463702d31687175616e7469747902ffff',
+  'hex',
+);
+const canceledCbor = Buffer.from(
+  'bf626964182b6675736572496466757365722d37667374617475736843414e43454c45446776657273696f6e01656974656d7380ff',
+  'hex',
+);
+
+const created = { id: 42, userId: 'user-7', status: 'CREATED', version: 0, items: [{ id: 5, productId: 'p-1', quantity: 2 }] };
+const canceled = { id: 43, userId: 'user-7', status: 'CANCELED', version: 1, items: [] };
+
+const pack = (bodies: Buffer[]): Buffer =>
+  Buffer.concat(bodies.flatMap((body) => {
+    const length = Buffer.alloc(4);
+    length.writeUInt32BE(body.length);
+    return [length, body];
+  }));
+
+const message = (content: Buffer, contentType: string, batch = false): any => ({
+  content,
+  properties: {
+    contentType,
+    headers: { 'x-event-version': 1, ...(batch ? { springBatchFormat: 'lengthHeader4' } : {}) },
+  },
+});
+
+describe('decodeEvents', () => {
+  it('decodes CBOR events to the same objects as JSON events', () => {
+    expect(decodeEvents(message(createdCbor, 'application/cbor'))).toEqual([created]);
+    expect(decodeEvents(message(Buffer.from(JSON.stringify(created)), 'application/json'))).toEqual([created]);
+  });
+
+  it('splits CBOR batch messages', () => {
+    expect(decodeEvents(message(pack([createdCbor, canceledCbor]), 'application/cbor', true))).toEqual([created, canceled]);
+  });
+
+  it('rejects unknown content types and newer event versions', () => {
+    expect(() => decodeEvents(message(createdCbor, 'application/x-protobuf'))).toThrow('Unsupported content type');
+    const newer = message(createdCbor, 'application/cbor');
+    newer.properties.headers['x-event-version'] = 2;
+    expect(() => decodeEvents(newer)).toThrow('Unsupported event version');
+  });
+});